@@ -0,0 +1,317 @@
+package com.identity_service.client;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.jwk.source.ImmutableSecret;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.jwk.source.JWKSourceBuilder;
+import com.nimbusds.jose.proc.BadJOSEException;
+import com.nimbusds.jose.proc.JWSVerificationKeySelector;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jose.util.JSONObjectUtils;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import com.nimbusds.jwt.proc.DefaultJWTClaimsVerifier;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
+
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.security.Key;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.ToLongFunction;
+
+/**
+ * Verifies identity-service tokens in a consuming service.
+ * <p>
+ * Tokens are checked locally (signature, issuer, expiry) with the configured key material: the shared HS512
+ * secret or the service's JWKS endpoint. A token that fails locally is rejected without a round trip. The
+ * identity service is only asked ({@code POST /auth/introspect}) when no local key matches the token, or
+ * when no {@link RevocationHook} is registered and the revocation status of a locally valid token is unknown.
+ * Positive decisions are cached until the token expires and re-checked against the hook on every call, so
+ * revocations apply immediately. Negative decisions of the identity service are cached for
+ * {@code negativeCacheTtl}, bounded apart from the positives so that a flood of junk tokens cannot evict them;
+ * local rejections are cheaper to repeat than to cache.
+ */
+public class IdentityClient {
+    private static final Set<JWSAlgorithm> ALGORITHMS = Set.of(JWSAlgorithm.HS512, JWSAlgorithm.RS256, JWSAlgorithm.ES256);
+
+    private final URI introspectUri;
+    private final HttpClient httpClient;
+    private final Duration requestTimeout;
+    private final JWSVerificationKeySelector<SecurityContext> keySelector;
+    private final DefaultJWTProcessor<SecurityContext> processor;
+    private final RevocationHook revocationHook;
+    private final long negativeCacheTtl;
+    private final int maxCacheSize;
+    private final int maxNegativeCacheSize;
+
+    // token -> positive decision
+    private final Map<String, CachedVerification> cache = new ConcurrentHashMap<>();
+
+    // token -> end of the identity service's rejection, epoch millis
+    private final Map<String, Long> remoteNegatives = new ConcurrentHashMap<>();
+
+    private IdentityClient(Builder builder) {
+        this.introspectUri = URI.create(builder.baseUri + "/auth/introspect");
+        this.httpClient = Objects.requireNonNullElseGet(builder.httpClient, HttpClient::newHttpClient);
+        this.requestTimeout = builder.requestTimeout;
+        this.revocationHook = builder.revocationHook;
+        this.negativeCacheTtl = builder.negativeCacheTtl.toMillis();
+        this.maxCacheSize = builder.maxCacheSize;
+        this.maxNegativeCacheSize = builder.maxNegativeCacheSize;
+
+        if (Objects.isNull(builder.jwkSource)) {
+            this.keySelector = null;
+            this.processor = null;
+        } else {
+            this.keySelector = new JWSVerificationKeySelector<>(ALGORITHMS, builder.jwkSource);
+            this.processor = new DefaultJWTProcessor<>();
+            this.processor.setJWSKeySelector(keySelector);
+            this.processor.setJWTClaimsSetVerifier(new DefaultJWTClaimsVerifier<>(
+                    new JWTClaimsSet.Builder().issuer(builder.issuer).build(),
+                    Set.of("sub", "exp", "jti")));
+        }
+    }
+
+    // baseUri: the service root including its context path, e.g. http://identity:8080/identity
+    public static Builder builder(String baseUri) {
+        return new Builder(baseUri);
+    }
+
+    public TokenVerification verify(String token) {
+        long now = System.currentTimeMillis();
+
+        CachedVerification cached = cache.get(token);
+        if (Objects.nonNull(cached)) {
+            if (cached.expiresAt > now) {
+                if (isRevoked(cached.claims)) {
+                    cache.remove(token, cached);
+                    return TokenVerification.invalid(TokenVerification.Source.CACHE);
+                }
+                return cached.verification.from(TokenVerification.Source.CACHE);
+            }
+            cache.remove(token, cached);
+        }
+
+        Long rejectedUntil = remoteNegatives.get(token);
+        if (Objects.nonNull(rejectedUntil)) {
+            if (rejectedUntil > now) {
+                return TokenVerification.invalid(TokenVerification.Source.CACHE);
+            }
+            remoteNegatives.remove(token, rejectedUntil);
+        }
+
+        SignedJWT jwt;
+        try {
+            jwt = SignedJWT.parse(token);
+        } catch (ParseException e) {
+            return TokenVerification.invalid(TokenVerification.Source.LOCAL);
+        }
+
+        if (!hasLocalKey(jwt)) {
+            return introspect(token, jwt, now);
+        }
+
+        JWTClaimsSet claims;
+        try {
+            claims = processor.process(jwt, null);
+        } catch (BadJOSEException | JOSEException e) {
+            // bad signature, wrong issuer, expired
+            return TokenVerification.invalid(TokenVerification.Source.LOCAL);
+        }
+
+        if (Objects.isNull(revocationHook)) {
+            return introspect(token, jwt, now);
+        }
+
+        if (revocationHook.isRevoked(claims)) {
+            return TokenVerification.invalid(TokenVerification.Source.LOCAL);
+        }
+
+        return remember(token, claims, TokenVerification.Source.LOCAL);
+    }
+
+    // drops every cached decision, e.g. after the key material was rotated
+    public void clearCache() {
+        cache.clear();
+        remoteNegatives.clear();
+    }
+
+    private boolean hasLocalKey(SignedJWT jwt) {
+        if (Objects.isNull(keySelector)) {
+            return false;
+        }
+
+        try {
+            List<Key> keys = keySelector.selectJWSKeys(jwt.getHeader(), null);
+            return !keys.isEmpty();
+        } catch (JOSEException e) {
+            // JWKS endpoint unreachable: the identity service decides
+            return false;
+        }
+    }
+
+    private boolean isRevoked(JWTClaimsSet claims) {
+        return Objects.nonNull(revocationHook) && Objects.nonNull(claims) && revocationHook.isRevoked(claims);
+    }
+
+    private TokenVerification introspect(String token, SignedJWT jwt, long now) {
+        HttpRequest request = HttpRequest.newBuilder(introspectUri)
+                .timeout(requestTimeout)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(JSONObjectUtils.toJSONString(Map.of("token", token))))
+                .build();
+
+        boolean valid;
+        try {
+            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 200) {
+                throw new IdentityClientException("Introspection answered " + response.statusCode(), null);
+            }
+
+            Map<String, Object> result = JSONObjectUtils.getJSONObject(JSONObjectUtils.parse(response.body()), "result");
+            valid = Objects.nonNull(result) && Boolean.TRUE.equals(result.get("valid"));
+        } catch (IOException | ParseException e) {
+            throw new IdentityClientException("Introspection failed", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IdentityClientException("Introspection interrupted", e);
+        }
+
+        JWTClaimsSet claims = unverifiedClaims(jwt);
+        Date expirationTime = Objects.isNull(claims) ? null : claims.getExpirationTime();
+
+        if (!valid || Objects.isNull(expirationTime)) {
+            bound(remoteNegatives, maxNegativeCacheSize, Long::longValue);
+            remoteNegatives.put(token, now + negativeCacheTtl);
+            return TokenVerification.invalid(TokenVerification.Source.REMOTE);
+        }
+
+        // the identity service vouched for these claims
+        return remember(token, claims, TokenVerification.Source.REMOTE);
+    }
+
+    private TokenVerification remember(String token, JWTClaimsSet claims, TokenVerification.Source source) {
+        bound(cache, maxCacheSize, CachedVerification::expiresAt);
+
+        TokenVerification verification = valid(claims, source);
+        cache.put(token, new CachedVerification(verification, claims, claims.getExpirationTime().getTime()));
+        return verification;
+    }
+
+    // crude bound: decisions are cheap to rebuild
+    private static <V> void bound(Map<String, V> decisions, int maxSize, ToLongFunction<V> expiresAt) {
+        if (decisions.size() >= maxSize) {
+            long now = System.currentTimeMillis();
+            decisions.values().removeIf(entry -> expiresAt.applyAsLong(entry) <= now);
+            if (decisions.size() >= maxSize) {
+                decisions.clear();
+            }
+        }
+    }
+
+    private static TokenVerification valid(JWTClaimsSet claims, TokenVerification.Source source) {
+        return new TokenVerification(true, claims.getSubject(), claims.getJWTID(),
+                claims.getExpirationTime().toInstant(), source);
+    }
+
+    private static JWTClaimsSet unverifiedClaims(SignedJWT jwt) {
+        try {
+            return jwt.getJWTClaimsSet();
+        } catch (ParseException e) {
+            return null;
+        }
+    }
+
+    private record CachedVerification(TokenVerification verification, JWTClaimsSet claims, long expiresAt) {
+    }
+
+    public static final class Builder {
+        private final String baseUri;
+        private JWKSource<SecurityContext> jwkSource;
+        private String issuer = "mq";
+        private RevocationHook revocationHook;
+        private HttpClient httpClient;
+        private Duration requestTimeout = Duration.ofSeconds(2);
+        private Duration negativeCacheTtl = Duration.ofSeconds(5);
+        private int maxCacheSize = 100_000;
+        private int maxNegativeCacheSize = 10_000;
+
+        private Builder(String baseUri) {
+            this.baseUri = baseUri.endsWith("/") ? baseUri.substring(0, baseUri.length() - 1) : baseUri;
+        }
+
+        // HS512: the service's jwt.signerKey
+        public Builder macSecret(byte[] secret) {
+            this.jwkSource = new ImmutableSecret<>(secret);
+            return this;
+        }
+
+        // RS256/ES256: public keys from the service's /.well-known/jwks.json, cached and refreshed by nimbus
+        public Builder jwks() {
+            try {
+                this.jwkSource = JWKSourceBuilder.create(URI.create(baseUri + "/.well-known/jwks.json").toURL())
+                        .build();
+            } catch (MalformedURLException e) {
+                throw new IllegalArgumentException("Invalid base uri " + baseUri, e);
+            }
+            return this;
+        }
+
+        public Builder jwkSource(JWKSource<SecurityContext> jwkSource) {
+            this.jwkSource = jwkSource;
+            return this;
+        }
+
+        public Builder issuer(String issuer) {
+            this.issuer = issuer;
+            return this;
+        }
+
+        public Builder revocationHook(RevocationHook revocationHook) {
+            this.revocationHook = revocationHook;
+            return this;
+        }
+
+        public Builder httpClient(HttpClient httpClient) {
+            this.httpClient = httpClient;
+            return this;
+        }
+
+        public Builder requestTimeout(Duration requestTimeout) {
+            this.requestTimeout = requestTimeout;
+            return this;
+        }
+
+        public Builder negativeCacheTtl(Duration negativeCacheTtl) {
+            this.negativeCacheTtl = negativeCacheTtl;
+            return this;
+        }
+
+        public Builder maxCacheSize(int maxCacheSize) {
+            this.maxCacheSize = maxCacheSize;
+            return this;
+        }
+
+        public Builder maxNegativeCacheSize(int maxNegativeCacheSize) {
+            this.maxNegativeCacheSize = maxNegativeCacheSize;
+            return this;
+        }
+
+        public IdentityClient build() {
+            return new IdentityClient(this);
+        }
+    }
+}
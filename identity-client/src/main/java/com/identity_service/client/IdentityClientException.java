@@ -0,0 +1,8 @@
+package com.identity_service.client;
+
+// the identity service could not be asked, the token is neither accepted nor rejected
+public class IdentityClientException extends RuntimeException {
+    public IdentityClientException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
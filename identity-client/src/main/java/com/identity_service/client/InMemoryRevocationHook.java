@@ -0,0 +1,84 @@
+package com.identity_service.client;
+
+import com.nimbusds.jwt.JWTClaimsSet;
+
+import java.text.ParseException;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * {@link RevocationHook} holding the token revocations the identity service publishes on its feed:
+ * <ul>
+ *     <li>{@code TOKEN} (logout, refresh): a single token by jti, {@link #revokeToken}</li>
+ *     <li>{@code USER_EPOCH} with an epoch (logout-all, password change): every token of the user carrying an
+ *     older epoch, {@link #revokeUser}</li>
+ *     <li>{@code USER_EPOCH} without an epoch (user deleted): every token of the subject issued until then,
+ *     {@link #revokeSubject}</li>
+ * </ul>
+ * {@code RBAC} and {@code USER} events revoke nothing. All methods are idempotent.
+ */
+public class InMemoryRevocationHook implements RevocationHook {
+    private static final String EPOCH_CLAIM = "epoch";
+
+    // jti -> expiry of the revoked token, dropped once the token would be rejected anyway
+    private final Map<String, Instant> revokedTokens = new ConcurrentHashMap<>();
+
+    // username -> current token epoch, tokens carrying an older epoch are revoked
+    private final Map<String, Long> userEpochs = new ConcurrentHashMap<>();
+
+    // username -> deletion time, tokens issued up to then are revoked; a user re-created under the name
+    // starts over at epoch 0 with later tokens
+    private final Map<String, Instant> deletedSubjects = new ConcurrentHashMap<>();
+
+    public void revokeToken(String jti, Instant expiresAt) {
+        revokedTokens.merge(jti, expiresAt, (current, next) -> next.isAfter(current) ? next : current);
+    }
+
+    public void revokeUser(String subject, long epoch) {
+        userEpochs.merge(subject, epoch, Math::max);
+    }
+
+    public void revokeSubject(String subject) {
+        deletedSubjects.merge(subject, Instant.now(), (current, next) -> next.isAfter(current) ? next : current);
+        userEpochs.remove(subject);
+    }
+
+    // removes revoked tokens past their expiry, call periodically
+    public void purgeExpired() {
+        Instant now = Instant.now();
+        revokedTokens.values().removeIf(expiresAt -> expiresAt.isBefore(now));
+    }
+
+    @Override
+    public boolean isRevoked(JWTClaimsSet claims) {
+        if (Objects.nonNull(claims.getJWTID()) && revokedTokens.containsKey(claims.getJWTID())) {
+            return true;
+        }
+
+        if (Objects.isNull(claims.getSubject())) {
+            return false;
+        }
+
+        // iat has second precision: a token of the same second as the deletion counts as issued before it
+        Instant deletedAt = deletedSubjects.get(claims.getSubject());
+        if (Objects.nonNull(deletedAt) && (Objects.isNull(claims.getIssueTime())
+                || !claims.getIssueTime().toInstant().isAfter(deletedAt))) {
+            return true;
+        }
+
+        Long current = userEpochs.get(claims.getSubject());
+        if (Objects.isNull(current)) {
+            return false;
+        }
+
+        try {
+            // tokens issued before the epoch claim existed belong to epoch 0
+            Long epoch = claims.getLongClaim(EPOCH_CLAIM);
+            return (Objects.isNull(epoch) ? 0 : epoch) < current;
+        } catch (ParseException e) {
+            return true;
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.identity_service.client;
+
+import com.nimbusds.jwt.JWTClaimsSet;
+
+/**
+ * Revocation knowledge of the consuming service, consulted for every token that verified locally (cached or
+ * not). With a hook, valid-looking tokens are accepted without asking the identity service; without one,
+ * their revocation status is introspected remotely once and cached until they expire.
+ * <p>
+ * Implementations are fed from the identity service's revocation feed, see {@link InMemoryRevocationHook}.
+ */
+@FunctionalInterface
+public interface RevocationHook {
+    boolean isRevoked(JWTClaimsSet claims);
+}
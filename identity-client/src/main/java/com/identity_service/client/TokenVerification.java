@@ -0,0 +1,27 @@
+package com.identity_service.client;
+
+import java.time.Instant;
+
+/**
+ * Outcome of {@link IdentityClient#verify}. Subject, jti and expiry are only known for tokens that could be
+ * parsed; {@code source} tells where the decision came from.
+ */
+public record TokenVerification(boolean valid, String subject, String jti, Instant expiresAt, Source source) {
+
+    public enum Source {
+        // signature and claims checked with local key material
+        LOCAL,
+        // POST /auth/introspect on the identity service
+        REMOTE,
+        // an earlier decision for the same token
+        CACHE
+    }
+
+    static TokenVerification invalid(Source source) {
+        return new TokenVerification(false, null, null, null, source);
+    }
+
+    TokenVerification from(Source newSource) {
+        return new TokenVerification(valid, subject, jti, expiresAt, newSource);
+    }
+}
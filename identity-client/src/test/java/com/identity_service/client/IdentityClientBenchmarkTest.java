@@ -0,0 +1,70 @@
+package com.identity_service.client;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Cost per verification for each path against the stand-in server. Run with {@code mvn -Pperf test};
+ * tune with {@code benchmark.tokens} and {@code benchmark.rounds}.
+ */
+@Tag("perf")
+public class IdentityClientBenchmarkTest {
+    private static final int TOKENS = Integer.getInteger("benchmark.tokens", 1_000);
+    private static final int ROUNDS = Integer.getInteger("benchmark.rounds", 20);
+
+    @Test
+    void verify_localCachedRemote_nanosPerOperation(TestReporter reporter) throws Exception {
+        try (var server = new StandInIdentityServer()) {
+            List<String> tokens = new ArrayList<>(TOKENS);
+            for (int i = 0; i < TOKENS; i++) {
+                tokens.add(StandInIdentityServer.issue("user" + i, 0, Duration.ofMinutes(10)).serialize());
+            }
+
+            var local = IdentityClient.builder(server.baseUri())
+                    .macSecret(StandInIdentityServer.SECRET)
+                    .revocationHook(new InMemoryRevocationHook())
+                    .build();
+            var remote = IdentityClient.builder(server.baseUri()).build();
+
+            double localNanos = measure(() -> {
+                local.clearCache();
+                tokens.forEach(local::verify);
+            });
+            double cachedNanos = measure(() -> tokens.forEach(local::verify));
+            double remoteNanos = measure(() -> {
+                remote.clearCache();
+                tokens.forEach(remote::verify);
+            });
+
+            String result = String.format("local %.0f ns, cached %.0f ns, remote %.0f ns", localNanos, cachedNanos, remoteNanos);
+            reporter.publishEntry(Map.of(
+                    "local-ns", String.format("%.0f", localNanos),
+                    "cached-ns", String.format("%.0f", cachedNanos),
+                    "remote-ns", String.format("%.0f", remoteNanos)));
+
+            assertThat(cachedNanos).as(result).isLessThan(localNanos);
+            assertThat(localNanos).as(result).isLessThan(remoteNanos);
+        }
+    }
+
+    // average nanoseconds per token over the measured rounds, after as many warmup rounds
+    private static double measure(Runnable round) {
+        for (int i = 0; i < ROUNDS; i++) {
+            round.run();
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) {
+            round.run();
+        }
+        return (double) (System.nanoTime() - start) / ROUNDS / TOKENS;
+    }
+}
@@ -0,0 +1,175 @@
+package com.identity_service.client;
+
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.MACSigner;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class IdentityClientTest {
+    private StandInIdentityServer server;
+
+    @BeforeEach
+    void startServer() throws Exception {
+        server = new StandInIdentityServer();
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.close();
+    }
+
+    @Test
+    void verify_withoutHook_introspectsOnceThenCaches() throws Exception {
+        IdentityClient client = IdentityClient.builder(server.baseUri())
+                .macSecret(StandInIdentityServer.SECRET)
+                .build();
+        String token = StandInIdentityServer.issue("walter", 0, Duration.ofMinutes(5)).serialize();
+
+        var first = client.verify(token);
+        var second = client.verify(token);
+
+        assertThat(first.valid()).isTrue();
+        assertThat(first.subject()).isEqualTo("walter");
+        assertThat(first.source()).isEqualTo(TokenVerification.Source.REMOTE);
+        assertThat(second.valid()).isTrue();
+        assertThat(second.source()).isEqualTo(TokenVerification.Source.CACHE);
+        assertThat(server.introspections()).isEqualTo(1);
+    }
+
+    @Test
+    void verify_withHook_decidesLocally() throws Exception {
+        InMemoryRevocationHook hook = new InMemoryRevocationHook();
+        IdentityClient client = IdentityClient.builder(server.baseUri())
+                .macSecret(StandInIdentityServer.SECRET)
+                .revocationHook(hook)
+                .build();
+        SignedJWT jwt = StandInIdentityServer.issue("walter", 0, Duration.ofMinutes(5));
+        String token = jwt.serialize();
+
+        assertThat(client.verify(token).source()).isEqualTo(TokenVerification.Source.LOCAL);
+        assertThat(client.verify(token).source()).isEqualTo(TokenVerification.Source.CACHE);
+
+        // a revocation from the feed applies to the cached decision right away
+        hook.revokeToken(jwt.getJWTClaimsSet().getJWTID(), jwt.getJWTClaimsSet().getExpirationTime().toInstant());
+        assertThat(client.verify(token).valid()).isFalse();
+
+        String other = StandInIdentityServer.issue("walter", 0, Duration.ofMinutes(5)).serialize();
+        assertThat(client.verify(other).valid()).isTrue();
+        hook.revokeUser("walter", 1);
+        assertThat(client.verify(other).valid()).isFalse();
+        assertThat(client.verify(StandInIdentityServer.issue("walter", 1, Duration.ofMinutes(5)).serialize()).valid()).isTrue();
+
+        assertThat(server.introspections()).isZero();
+    }
+
+    @Test
+    void verify_withHook_deletedUserRejectedUntilRecreated() throws Exception {
+        InMemoryRevocationHook hook = new InMemoryRevocationHook();
+        IdentityClient client = IdentityClient.builder(server.baseUri())
+                .macSecret(StandInIdentityServer.SECRET)
+                .revocationHook(hook)
+                .build();
+        String beforeEpochBump = StandInIdentityServer.issue("walter", 0, Duration.ofMinutes(5)).serialize();
+        String current = StandInIdentityServer.issue("walter", 1, Duration.ofMinutes(5)).serialize();
+        hook.revokeUser("walter", 1);
+        assertThat(client.verify(current).valid()).isTrue();
+
+        // USER_EPOCH without an epoch: the user was deleted, every token of it is revoked whatever its epoch
+        hook.revokeSubject("walter");
+        assertThat(client.verify(beforeEpochBump).valid()).isFalse();
+        assertThat(client.verify(current).valid()).isFalse();
+        assertThat(client.verify(StandInIdentityServer.issue("jesse", 0, Duration.ofMinutes(5)).serialize()).valid()).isTrue();
+
+        // a user re-created under the name starts over at epoch 0, iat has second precision
+        Thread.sleep(1100);
+        assertThat(client.verify(StandInIdentityServer.issue("walter", 0, Duration.ofMinutes(5)).serialize()).valid()).isTrue();
+
+        assertThat(server.introspections()).isZero();
+    }
+
+    @Test
+    void verify_badSignatureOrExpired_rejectedWithoutRoundTrip() throws Exception {
+        IdentityClient client = IdentityClient.builder(server.baseUri())
+                .macSecret(StandInIdentityServer.SECRET)
+                .build();
+
+        SignedJWT forged = new SignedJWT(new JWSHeader(JWSAlgorithm.HS512), new JWTClaimsSet.Builder()
+                .subject("walter")
+                .issuer("mq")
+                .expirationTime(Date.from(Instant.now().plusSeconds(300)))
+                .jwtID("forged")
+                .build());
+        forged.sign(new MACSigner("another-secret-another-secret-another-secret-another-secret-1234"
+                .getBytes(StandardCharsets.UTF_8)));
+
+        assertThat(client.verify(forged.serialize()).valid()).isFalse();
+        assertThat(client.verify(StandInIdentityServer.issue("walter", 0, Duration.ofMinutes(-5)).serialize()).valid()).isFalse();
+        assertThat(client.verify("not-a-token").valid()).isFalse();
+        assertThat(server.introspections()).isZero();
+    }
+
+    @Test
+    void verify_junkTokens_cachedPositiveKept() throws Exception {
+        IdentityClient client = IdentityClient.builder(server.baseUri())
+                .macSecret(StandInIdentityServer.SECRET)
+                .maxCacheSize(2)
+                .build();
+        String token = StandInIdentityServer.issue("walter", 0, Duration.ofMinutes(5)).serialize();
+        assertThat(client.verify(token).source()).isEqualTo(TokenVerification.Source.REMOTE);
+
+        for (int i = 0; i < 10; i++) {
+            assertThat(client.verify("not-a-token-" + i).valid()).isFalse();
+            assertThat(client.verify(StandInIdentityServer.issue("walter", 0, Duration.ofMinutes(-5)).serialize()).valid()).isFalse();
+        }
+
+        assertThat(client.verify(token).source()).isEqualTo(TokenVerification.Source.CACHE);
+        assertThat(server.introspections()).isEqualTo(1);
+    }
+
+    @Test
+    void verify_remoteNegativesBoundedApartFromPositives() throws Exception {
+        IdentityClient client = IdentityClient.builder(server.baseUri())
+                .maxCacheSize(2)
+                .maxNegativeCacheSize(2)
+                .build();
+        String token = StandInIdentityServer.issue("walter", 0, Duration.ofMinutes(5)).serialize();
+        client.verify(token);
+
+        for (int i = 0; i < 5; i++) {
+            SignedJWT revoked = StandInIdentityServer.issue("walter", 0, Duration.ofMinutes(5));
+            server.revoke(revoked.getJWTClaimsSet().getJWTID());
+            assertThat(client.verify(revoked.serialize()).source()).isEqualTo(TokenVerification.Source.REMOTE);
+        }
+
+        assertThat(client.verify(token).source()).isEqualTo(TokenVerification.Source.CACHE);
+        assertThat(server.introspections()).isEqualTo(6);
+    }
+
+    @Test
+    void verify_noKeyMaterial_negativeCachedBriefly() throws Exception {
+        IdentityClient client = IdentityClient.builder(server.baseUri())
+                .negativeCacheTtl(Duration.ofMillis(200))
+                .build();
+        SignedJWT jwt = StandInIdentityServer.issue("walter", 0, Duration.ofMinutes(5));
+        server.revoke(jwt.getJWTClaimsSet().getJWTID());
+
+        assertThat(client.verify(jwt.serialize()).valid()).isFalse();
+        assertThat(client.verify(jwt.serialize()).source()).isEqualTo(TokenVerification.Source.CACHE);
+        assertThat(server.introspections()).isEqualTo(1);
+
+        Thread.sleep(250);
+        assertThat(client.verify(jwt.serialize()).source()).isEqualTo(TokenVerification.Source.REMOTE);
+        assertThat(server.introspections()).isEqualTo(2);
+    }
+}
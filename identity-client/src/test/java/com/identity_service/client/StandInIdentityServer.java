@@ -0,0 +1,88 @@
+package com.identity_service.client;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.MACSigner;
+import com.nimbusds.jose.util.JSONObjectUtils;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// stand-in for the identity service: issues HS512 tokens and answers /auth/introspect like the real one
+class StandInIdentityServer implements AutoCloseable {
+    static final byte[] SECRET = "SLHLfWZMSj23g64t76GxuyaJAJskUCeyrMLSRDyM6bghzKGp5Pp9m0KloQD3riWU"
+            .getBytes(StandardCharsets.UTF_8);
+
+    private final HttpServer server;
+    private final Set<String> revoked = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger introspections = new AtomicInteger();
+
+    StandInIdentityServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/identity/auth/introspect", exchange -> {
+            introspections.incrementAndGet();
+            boolean valid;
+            try {
+                String token = (String) JSONObjectUtils.parse(
+                        new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8)).get("token");
+                SignedJWT jwt = SignedJWT.parse(token);
+                valid = !revoked.contains(jwt.getJWTClaimsSet().getJWTID())
+                        && jwt.getJWTClaimsSet().getExpirationTime().after(new Date());
+            } catch (Exception e) {
+                valid = false;
+            }
+
+            byte[] body = JSONObjectUtils.toJSONString(Map.of("code", 1000, "result", Map.of("valid", valid)))
+                    .getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.start();
+    }
+
+    String baseUri() {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + "/identity";
+    }
+
+    int introspections() {
+        return introspections.get();
+    }
+
+    void revoke(String jti) {
+        revoked.add(jti);
+    }
+
+    static SignedJWT issue(String subject, long epoch, Duration validFor) throws JOSEException {
+        Instant now = Instant.now();
+        SignedJWT jwt = new SignedJWT(new JWSHeader(JWSAlgorithm.HS512), new JWTClaimsSet.Builder()
+                .subject(subject)
+                .issuer("mq")
+                .issueTime(Date.from(now))
+                .expirationTime(Date.from(now.plus(validFor)))
+                .jwtID(UUID.randomUUID().toString())
+                .claim("epoch", epoch)
+                .build());
+        jwt.sign(new MACSigner(SECRET));
+        return jwt;
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+}
@@ -0,0 +1,36 @@
+package com.identity_service.configuration;
+
+import org.springframework.security.core.GrantedAuthority;
+
+import java.io.Serializable;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Immutable authority collection shared by every request presenting the same scope, with O(1)
+ * name lookups for {@code hasRole}/{@code hasAuthority}.
+ */
+public final class InternedAuthorities implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private final List<GrantedAuthority> authorities;
+    private final Set<String> names;
+
+    public InternedAuthorities(Collection<GrantedAuthority> authorities) {
+        this.authorities = List.copyOf(authorities);
+
+        Set<String> authorityNames = new HashSet<>();
+        authorities.forEach(authority -> authorityNames.add(authority.getAuthority()));
+        this.names = Set.copyOf(authorityNames);
+    }
+
+    public List<GrantedAuthority> getAuthorities() {
+        return authorities;
+    }
+
+    public boolean contains(String authority) {
+        return names.contains(authority);
+    }
+}
@@ -0,0 +1,86 @@
+package com.identity_service.configuration;
+
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.security.authentication.AbstractAuthenticationToken;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Converts a JWT into an authentication whose authorities come from a bounded cache keyed by the scope
+ * claims. There are only a handful of distinct scopes, so the hot path is a map lookup and one token object.
+ */
+@Component
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class InternedJwtAuthenticationConverter implements Converter<Jwt, AbstractAuthenticationToken> {
+    ScopeAuthoritiesConverter scopeAuthoritiesConverter;
+
+    // scope claim -> authorities
+    Map<String, InternedAuthorities> byScope = new ConcurrentHashMap<>();
+    // dictionary version -> compact scope -> authorities
+    Map<String, Map<String, InternedAuthorities>> byCompactScope = new ConcurrentHashMap<>();
+
+    @NonFinal
+    @Value("${security.authority-cache-size:1024}")
+    protected int AUTHORITY_CACHE_SIZE;
+
+    @Override
+    public AbstractAuthenticationToken convert(Jwt jwt) {
+        return new InternedJwtAuthenticationToken(jwt, authoritiesOf(jwt));
+    }
+
+    private InternedAuthorities authoritiesOf(Jwt jwt) {
+        String scope = jwt.getClaimAsString(ScopeAuthoritiesConverter.SCOPE_CLAIM);
+        String compactScope = jwt.getClaimAsString(ScopeAuthoritiesConverter.COMPACT_SCOPE_CLAIM);
+        String version = jwt.getClaimAsString(ScopeAuthoritiesConverter.COMPACT_SCOPE_VERSION_CLAIM);
+
+        if (Objects.isNull(compactScope) || Objects.isNull(version)) {
+            InternedAuthorities authorities = byScope.get(Objects.requireNonNullElse(scope, ""));
+            if (Objects.isNull(authorities)) {
+                authorities = intern(byScope, Objects.requireNonNullElse(scope, ""), jwt);
+            }
+            return authorities;
+        }
+
+        // compact scope with plain leftovers is rare, not worth a cache entry
+        if (Objects.nonNull(scope)) {
+            return new InternedAuthorities(scopeAuthoritiesConverter.convert(jwt));
+        }
+
+        Map<String, InternedAuthorities> byBits = byCompactScope.get(version);
+        if (Objects.isNull(byBits)) {
+            evictIfFull(byCompactScope);
+            byBits = byCompactScope.computeIfAbsent(version, key -> new ConcurrentHashMap<>());
+        }
+
+        InternedAuthorities authorities = byBits.get(compactScope);
+        if (Objects.isNull(authorities)) {
+            authorities = intern(byBits, compactScope, jwt);
+        }
+        return authorities;
+    }
+
+    private InternedAuthorities intern(Map<String, InternedAuthorities> cache, String key, Jwt jwt) {
+        InternedAuthorities authorities = new InternedAuthorities(scopeAuthoritiesConverter.convert(jwt));
+
+        evictIfFull(cache);
+        InternedAuthorities existing = cache.putIfAbsent(key, authorities);
+        return Objects.nonNull(existing) ? existing : authorities;
+    }
+
+    // crude bound, entries are rebuilt on the next miss
+    private void evictIfFull(Map<String, ?> cache) {
+        if (cache.size() >= AUTHORITY_CACHE_SIZE) {
+            cache.clear();
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.identity_service.configuration;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+
+import java.util.Collection;
+
+// JwtAuthenticationToken backed by a shared InternedAuthorities instead of a per-request copy
+public class InternedJwtAuthenticationToken extends JwtAuthenticationToken {
+    private static final long serialVersionUID = 1L;
+
+    // serialized with the token (e.g. into an HTTP session), the cache it came from is not
+    private final InternedAuthorities internedAuthorities;
+
+    public InternedJwtAuthenticationToken(Jwt jwt, InternedAuthorities internedAuthorities) {
+        super(jwt, AuthorityUtils.NO_AUTHORITIES, jwt.getSubject());
+        this.internedAuthorities = internedAuthorities;
+    }
+
+    @Override
+    public Collection<GrantedAuthority> getAuthorities() {
+        return internedAuthorities.getAuthorities();
+    }
+
+    public boolean hasAuthority(String authority) {
+        return internedAuthorities.contains(authority);
+    }
+}
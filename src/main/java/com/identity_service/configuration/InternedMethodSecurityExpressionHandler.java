@@ -0,0 +1,24 @@
+package com.identity_service.configuration;
+
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.expression.EvaluationContext;
+import org.springframework.expression.spel.support.StandardEvaluationContext;
+import org.springframework.security.access.expression.method.DefaultMethodSecurityExpressionHandler;
+import org.springframework.security.access.expression.method.MethodSecurityExpressionOperations;
+import org.springframework.security.core.Authentication;
+
+import java.util.function.Supplier;
+
+// wraps the standard expression root with InternedMethodSecurityExpressionRoot
+public class InternedMethodSecurityExpressionHandler extends DefaultMethodSecurityExpressionHandler {
+
+    @Override
+    public EvaluationContext createEvaluationContext(Supplier<Authentication> authentication, MethodInvocation invocation) {
+        StandardEvaluationContext context = (StandardEvaluationContext) super.createEvaluationContext(authentication, invocation);
+
+        var root = (MethodSecurityExpressionOperations) context.getRootObject().getValue();
+        context.setRootObject(new InternedMethodSecurityExpressionRoot(root));
+
+        return context;
+    }
+}
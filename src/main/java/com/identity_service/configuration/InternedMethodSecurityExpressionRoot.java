@@ -0,0 +1,141 @@
+package com.identity_service.configuration;
+
+import org.springframework.security.access.expression.method.MethodSecurityExpressionOperations;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+
+import java.util.Objects;
+
+/**
+ * Expression root answering {@code hasRole}/{@code hasAuthority} with an O(1) lookup in the interned
+ * authorities, instead of the per-invocation authority set built by Spring's root. Everything else is
+ * delegated to the standard root.
+ */
+public class InternedMethodSecurityExpressionRoot implements MethodSecurityExpressionOperations {
+    public static final String USER_ID_CLAIM = "uid";
+    private static final String ROLE_PREFIX = "ROLE_";
+
+    private final MethodSecurityExpressionOperations delegate;
+
+    public InternedMethodSecurityExpressionRoot(MethodSecurityExpressionOperations delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public Authentication getAuthentication() {
+        return delegate.getAuthentication();
+    }
+
+    // referenced as "principal" in expressions
+    public Object getPrincipal() {
+        return getAuthentication().getPrincipal();
+    }
+
+    // decided from the uid claim alone, tokens issued before the claim existed are refused until refreshed
+    public boolean isUser(String userId) {
+        return getAuthentication() instanceof JwtAuthenticationToken token
+                && Objects.nonNull(userId)
+                && userId.equals(token.getToken().getClaimAsString(USER_ID_CLAIM));
+    }
+
+    @Override
+    public boolean hasAuthority(String authority) {
+        if (getAuthentication() instanceof InternedJwtAuthenticationToken token) {
+            return token.hasAuthority(authority);
+        }
+        return delegate.hasAuthority(authority);
+    }
+
+    @Override
+    public boolean hasAnyAuthority(String... authorities) {
+        for (String authority : authorities) {
+            if (hasAuthority(authority)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean hasRole(String role) {
+        if (getAuthentication() instanceof InternedJwtAuthenticationToken token) {
+            return token.hasAuthority(role.startsWith(ROLE_PREFIX) ? role : ROLE_PREFIX + role);
+        }
+        return delegate.hasRole(role);
+    }
+
+    @Override
+    public boolean hasAnyRole(String... roles) {
+        for (String role : roles) {
+            if (hasRole(role)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean permitAll() {
+        return delegate.permitAll();
+    }
+
+    @Override
+    public boolean denyAll() {
+        return delegate.denyAll();
+    }
+
+    @Override
+    public boolean isAnonymous() {
+        return delegate.isAnonymous();
+    }
+
+    @Override
+    public boolean isAuthenticated() {
+        return delegate.isAuthenticated();
+    }
+
+    @Override
+    public boolean isRememberMe() {
+        return delegate.isRememberMe();
+    }
+
+    @Override
+    public boolean isFullyAuthenticated() {
+        return delegate.isFullyAuthenticated();
+    }
+
+    @Override
+    public boolean hasPermission(Object target, Object permission) {
+        return delegate.hasPermission(target, permission);
+    }
+
+    @Override
+    public boolean hasPermission(Object targetId, String targetType, Object permission) {
+        return delegate.hasPermission(targetId, targetType, permission);
+    }
+
+    @Override
+    public void setFilterObject(Object filterObject) {
+        delegate.setFilterObject(filterObject);
+    }
+
+    @Override
+    public Object getFilterObject() {
+        return delegate.getFilterObject();
+    }
+
+    @Override
+    public void setReturnObject(Object returnObject) {
+        delegate.setReturnObject(returnObject);
+    }
+
+    @Override
+    public Object getReturnObject() {
+        return delegate.getReturnObject();
+    }
+
+    @Override
+    public Object getThis() {
+        return delegate.getThis();
+    }
+}
@@ -0,0 +1,145 @@
+package com.identity_service.configuration;
+
+import com.nimbusds.jose.*;
+import com.nimbusds.jose.crypto.*;
+import com.nimbusds.jose.jwk.*;
+import com.nimbusds.jose.jwk.gen.ECKeyGenerator;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jose.jwk.source.ImmutableJWKSet;
+import com.nimbusds.jose.proc.JWSVerificationKeySelector;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.security.oauth2.jose.jws.MacAlgorithm;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.text.ParseException;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Holds the key material used to sign and verify our tokens.
+ * <p>
+ * HS512 (default) signs with the shared {@code jwt.signerKey}. RS256 and ES256 sign with a private key
+ * loaded from the JWK set at {@code jwt.key-set-location}; only the public part is published on the JWKS
+ * endpoint so resource servers can verify tokens locally.
+ */
+@Slf4j
+@Component
+public class JwtKeyProvider {
+
+    @Value("${jwt.signerKey}")
+    private String SIGNER_KEY;
+
+    @Value("${jwt.signing-algorithm:HS512}")
+    private String SIGNING_ALGORITHM;
+
+    @Value("${jwt.key-set-location:}")
+    private String KEY_SET_LOCATION;
+
+    private JWSAlgorithm algorithm;
+    private String keyId;
+    private JWSSigner signer;
+    private JWSVerifier verifier;
+    private JWKSet publicJwkSet;
+
+    @PostConstruct
+    void init() throws JOSEException, IOException, ParseException {
+        algorithm = JWSAlgorithm.parse(SIGNING_ALGORITHM);
+
+        if (JWSAlgorithm.HS512.equals(algorithm)) {
+            signer = new MACSigner(SIGNER_KEY.getBytes());
+            verifier = new MACVerifier(SIGNER_KEY.getBytes());
+            publicJwkSet = new JWKSet();
+            return;
+        }
+
+        JWK key = loadOrGenerateKey();
+        keyId = key.getKeyID();
+
+        if (JWSAlgorithm.RS256.equals(algorithm)) {
+            signer = new RSASSASigner(key.toRSAKey());
+            verifier = new RSASSAVerifier(key.toRSAKey().toPublicJWK());
+        } else if (JWSAlgorithm.ES256.equals(algorithm)) {
+            signer = new ECDSASigner(key.toECKey());
+            verifier = new ECDSAVerifier(key.toECKey().toPublicJWK());
+        } else {
+            throw new IllegalStateException("Unsupported jwt.signing-algorithm: " + SIGNING_ALGORITHM);
+        }
+
+        publicJwkSet = new JWKSet(key.toPublicJWK());
+    }
+
+    public JWSAlgorithm getAlgorithm() {
+        return algorithm;
+    }
+
+    public JWSHeader createHeader() {
+        return new JWSHeader.Builder(algorithm).keyID(keyId).build();
+    }
+
+    public JWSSigner getSigner() {
+        return signer;
+    }
+
+    public JWSVerifier getVerifier() {
+        return verifier;
+    }
+
+    // public keys only, safe to publish
+    public Map<String, Object> getPublicJwkSet() {
+        return publicJwkSet.toJSONObject(true);
+    }
+
+    public JwtDecoder createJwtDecoder() {
+        if (JWSAlgorithm.HS512.equals(algorithm)) {
+            SecretKeySpec secretKeySpec = new SecretKeySpec(SIGNER_KEY.getBytes(), "HS512");
+
+            return NimbusJwtDecoder
+                    .withSecretKey(secretKeySpec)
+                    .macAlgorithm(MacAlgorithm.HS512)
+                    .build();
+        }
+
+        DefaultJWTProcessor<SecurityContext> jwtProcessor = new DefaultJWTProcessor<>();
+        jwtProcessor.setJWSKeySelector(new JWSVerificationKeySelector<>(algorithm, new ImmutableJWKSet<>(publicJwkSet)));
+        // claims are validated by NimbusJwtDecoder's default validators
+        jwtProcessor.setJWTClaimsSetVerifier((claims, context) -> {
+        });
+
+        return new NimbusJwtDecoder(jwtProcessor);
+    }
+
+    private JWK loadOrGenerateKey() throws JOSEException, IOException, ParseException {
+        if (StringUtils.hasText(KEY_SET_LOCATION)) {
+            var resource = new DefaultResourceLoader().getResource(KEY_SET_LOCATION);
+            try (var inputStream = resource.getInputStream()) {
+                JWKSet keySet = JWKSet.load(inputStream);
+                KeyType keyType = JWSAlgorithm.RS256.equals(algorithm) ? KeyType.RSA : KeyType.EC;
+
+                return keySet.getKeys().stream()
+                        .filter(jwk -> keyType.equals(jwk.getKeyType()) && jwk.isPrivate())
+                        .findFirst()
+                        .orElseThrow(() -> new IllegalStateException(
+                                "No private " + keyType + " key found in " + KEY_SET_LOCATION));
+            }
+        }
+
+        // every replica must share the same key, so generated keys are only fit for a single instance
+        log.warn("jwt.key-set-location is not set, generating an ephemeral {} signing key", algorithm);
+        String kid = UUID.randomUUID().toString();
+
+        if (JWSAlgorithm.RS256.equals(algorithm)) {
+            return new RSAKeyGenerator(2048).keyID(kid).keyUse(KeyUse.SIGNATURE).algorithm(algorithm).generate();
+        }
+        return new ECKeyGenerator(Curve.P_256).keyID(kid).keyUse(KeyUse.SIGNATURE).algorithm(algorithm).generate();
+    }
+}
@@ -0,0 +1,88 @@
+package com.identity_service.configuration;
+
+import com.identity_service.dto.event.RevocationEvent;
+import com.identity_service.enums.RevocationKind;
+import com.identity_service.service.RevocationFeed;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Read/write split, enabled when {@code spring.datasource.replica.url} is set. The primary pool is built
+ * from {@code spring.datasource.*}, the replica pool from {@code spring.datasource.replica.*}.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "spring.datasource.replica", name = "url")
+public class ReadWriteRoutingConfig {
+
+    @Value("${spring.datasource.replica.write-stickiness:1000}")
+    private long WRITE_STICKINESS;
+
+    @Bean(autowireCandidate = false)
+    HikariDataSource primaryDataSource(DataSourceProperties properties, Environment environment) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(dataSource));
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean(autowireCandidate = false)
+    HikariDataSource replicaDataSource(Environment environment) {
+        Binder binder = Binder.get(environment);
+        DataSourceProperties properties = binder.bind("spring.datasource.replica", DataSourceProperties.class).get();
+
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        binder.bind("spring.datasource.replica.hikari", Bindable.ofInstance(dataSource));
+        dataSource.setPoolName("replica");
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean(autowireCandidate = false)
+    ReadWriteRoutingDataSource routingDataSource(DataSourceProperties properties, Environment environment) {
+        ReadWriteRoutingDataSource routingDataSource = new ReadWriteRoutingDataSource(WRITE_STICKINESS);
+        DataSource primary = primaryDataSource(properties, environment);
+
+        routingDataSource.setTargetDataSources(Map.<Object, Object>of(
+                ReadWriteRoutingDataSource.Route.PRIMARY, primary,
+                ReadWriteRoutingDataSource.Route.REPLICA, replicaDataSource(environment)));
+        routingDataSource.setDefaultTargetDataSource(primary);
+        routingDataSource.afterPropertiesSet();
+
+        return routingDataSource;
+    }
+
+    @Bean
+    @Primary
+    DataSource dataSource(DataSourceProperties properties, Environment environment) {
+        return new LazyConnectionDataSourceProxy(routingDataSource(properties, environment));
+    }
+
+    // writes on other nodes arrive as feed events, the stickiness then applies from when this node sees them
+    @Bean
+    SmartInitializingSingleton routingFeedSubscription(RevocationFeed revocationFeed,
+                                                       DataSourceProperties properties, Environment environment) {
+        ReadWriteRoutingDataSource routingDataSource = routingDataSource(properties, environment);
+        return () -> revocationFeed.subscribe(event -> markWrite(routingDataSource, event));
+    }
+
+    private static void markWrite(ReadWriteRoutingDataSource routingDataSource, RevocationEvent event) {
+        if (event.getKind() == RevocationKind.RBAC) {
+            routingDataSource.markWriteForEveryCaller();
+        } else if (event.getKind() == RevocationKind.USER || event.getKind() == RevocationKind.USER_EPOCH) {
+            routingDataSource.markWrite(event.getSubject());
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.identity_service.configuration;
+
+import com.identity_service.service.UserService;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Sends connections of {@code @Transactional(readOnly = true)} service methods to the replica pool and
+ * everything else to the primary. Must sit behind a {@code LazyConnectionDataSourceProxy}, otherwise the
+ * connection is fetched before the transaction's read-only flag is visible.
+ * <p>
+ * Read-your-writes is tracked per caller: after a write by an authenticated caller, or a write another node
+ * reported for a username ({@link #markWrite}), reads of that caller stay on the primary for the write
+ * stickiness. Writes without a caller (signups, logins, refreshes, scheduled jobs) do not pin any reads.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+    private static final String SERVICE_PACKAGE = UserService.class.getPackageName() + ".";
+
+    // usernames are never empty
+    private static final String EVERY_CALLER = "";
+
+    // beyond this many callers expired entries are purged on the next write
+    private static final int MAX_TRACKED_CALLERS = 10_000;
+
+    private final long writeStickiness;
+
+    // caller -> time of its last write
+    private final Map<String, Long> lastWrites = new ConcurrentHashMap<>();
+
+    public enum Route {
+        PRIMARY,
+        REPLICA
+    }
+
+    // writeStickiness: ms after a caller's write during which its reads stay on the primary
+    public ReadWriteRoutingDataSource(long writeStickiness) {
+        this.writeStickiness = writeStickiness;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            markWrite(currentCaller());
+            return Route.PRIMARY;
+        }
+
+        // repository-level read-only transactions (login lookups, feed polling) stay on the primary
+        String transactionName = TransactionSynchronizationManager.getCurrentTransactionName();
+        if (transactionName == null || !transactionName.startsWith(SERVICE_PACKAGE)) {
+            return Route.PRIMARY;
+        }
+
+        // the replica may not have applied a write made moments ago, e.g. a logout or a profile update
+        if (wroteRecently(EVERY_CALLER) || wroteRecently(currentCaller())) {
+            return Route.PRIMARY;
+        }
+
+        return Route.REPLICA;
+    }
+
+    // caller: a username, null is ignored
+    public void markWrite(String caller) {
+        if (caller == null) {
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+        lastWrites.put(caller.toLowerCase(Locale.ROOT), now);
+
+        if (lastWrites.size() > MAX_TRACKED_CALLERS) {
+            lastWrites.values().removeIf(time -> now - time >= writeStickiness);
+        }
+    }
+
+    // writes every caller reads, e.g. roles and permissions
+    public void markWriteForEveryCaller() {
+        lastWrites.put(EVERY_CALLER, System.currentTimeMillis());
+    }
+
+    private boolean wroteRecently(String caller) {
+        if (caller == null) {
+            return false;
+        }
+
+        Long lastWrite = lastWrites.get(caller.toLowerCase(Locale.ROOT));
+        return lastWrite != null && System.currentTimeMillis() - lastWrite < writeStickiness;
+    }
+
+    private static String currentCaller() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || authentication instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        return authentication.getName();
+    }
+}
@@ -0,0 +1,52 @@
+package com.identity_service.configuration;
+
+import com.identity_service.service.PermissionDictionaryService;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+
+// authorities from the plain "scope" claim plus the compact "perms" bitset, expanded with its dictionary
+@Component
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class ScopeAuthoritiesConverter implements Converter<Jwt, Collection<GrantedAuthority>> {
+    public static final String SCOPE_CLAIM = "scope";
+    public static final String COMPACT_SCOPE_CLAIM = "perms";
+    public static final String COMPACT_SCOPE_VERSION_CLAIM = "perms_v";
+
+    PermissionDictionaryService permissionDictionaryService;
+
+    @Override
+    public Collection<GrantedAuthority> convert(Jwt jwt) {
+        List<GrantedAuthority> authorities = new ArrayList<>();
+
+        String scope = jwt.getClaimAsString(SCOPE_CLAIM);
+        if (StringUtils.hasText(scope)) {
+            for (String authority : scope.split(" ")) {
+                authorities.add(new SimpleGrantedAuthority(authority));
+            }
+        }
+
+        String compactScope = jwt.getClaimAsString(COMPACT_SCOPE_CLAIM);
+        String version = jwt.getClaimAsString(COMPACT_SCOPE_VERSION_CLAIM);
+        if (Objects.nonNull(compactScope) && Objects.nonNull(version)) {
+            // unknown dictionary: the token only keeps its plain scope authorities
+            permissionDictionaryService.find(version).ifPresent(dictionary ->
+                    dictionary.decode(compactScope).forEach(authority ->
+                            authorities.add(new SimpleGrantedAuthority(authority))));
+        }
+
+        return authorities;
+    }
+}
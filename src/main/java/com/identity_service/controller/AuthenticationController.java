@@ -1,20 +1,28 @@
 package com.identity_service.controller;
 
 import com.identity_service.dto.request.AuthenticationRequest;
+import com.identity_service.dto.request.AuthorizationRequest;
 import com.identity_service.dto.request.IntrospectRequest;
 import com.identity_service.dto.request.LogoutRequest;
 import com.identity_service.dto.request.RefreshRequest;
 import com.identity_service.dto.response.APIResponse;
 import com.identity_service.dto.response.AuthenticationResponse;
+import com.identity_service.dto.response.AuthorizationResponse;
 import com.identity_service.dto.response.IntrospectResponse;
+import com.identity_service.dto.response.SessionResponse;
 import com.identity_service.service.AuthenticationService;
+import com.identity_service.service.RbacGraphService;
+import com.identity_service.service.UserSessionService;
 import com.nimbusds.jose.JOSEException;
+import jakarta.validation.Valid;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import java.text.ParseException;
+import java.util.List;
 
 @RestController
 @RequestMapping("/auth")
@@ -22,6 +30,8 @@ import java.text.ParseException;
 @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
 public class AuthenticationController {
     AuthenticationService authenticationService;
+    UserSessionService userSessionService;
+    RbacGraphService rbacGraphService;
 
     @PostMapping("/login")
     public APIResponse<AuthenticationResponse> authenticate(@RequestBody AuthenticationRequest request) {
@@ -40,6 +50,15 @@ public class AuthenticationController {
                 .build();
     }
 
+    // batch of (subject, permission) decisions for downstream services, answered from memory
+    @PreAuthorize("hasRole('ADMIN') or hasAuthority('AUTHORIZATION_CHECK')")
+    @PostMapping("/authorize")
+    public APIResponse<AuthorizationResponse> authorize(@RequestBody @Valid AuthorizationRequest request) {
+        return APIResponse.<AuthorizationResponse>builder()
+                .result(rbacGraphService.authorize(request))
+                .build();
+    }
+
     @PostMapping("/logout")
     public APIResponse<Void> logout(@RequestBody LogoutRequest request) throws ParseException, JOSEException {
         authenticationService.logout(request);
@@ -47,6 +66,13 @@ public class AuthenticationController {
                 .build();
     }
 
+    @PostMapping("/logout-all")
+    public APIResponse<Void> logoutAll(@RequestBody LogoutRequest request) throws ParseException, JOSEException {
+        authenticationService.logoutAll(request);
+        return APIResponse.<Void>builder()
+                .build();
+    }
+
     @PostMapping("/refresh")
     public APIResponse<AuthenticationResponse> authenticate(@RequestBody RefreshRequest request) throws ParseException, JOSEException {
         var result = authenticationService.refreshToken(request);
@@ -54,4 +80,12 @@ public class AuthenticationController {
                 .result(result)
                 .build();
     }
+
+    // active sessions of the current user, newest first
+    @GetMapping("/sessions")
+    public APIResponse<List<SessionResponse>> getSessions() {
+        return APIResponse.<List<SessionResponse>>builder()
+                .result(userSessionService.getMySessions())
+                .build();
+    }
 }
@@ -0,0 +1,42 @@
+package com.identity_service.controller;
+
+import com.identity_service.configuration.JwtKeyProvider;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+
+// public signing keys (RFC 7517) so resource servers can verify tokens without calling /auth/introspect
+@RestController
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class JwksController {
+    JwtKeyProvider jwtKeyProvider;
+
+    @NonFinal
+    @Value("${jwt.jwks-max-age:3600}")
+    protected long JWKS_MAX_AGE;
+
+    // plain JWK set, not wrapped in APIResponse; a matching If-None-Match is answered with 304
+    @GetMapping(value = "/.well-known/jwks.json", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<Map<String, Object>> getJwks() {
+        var jwkSet = jwtKeyProvider.getPublicJwkSet();
+        String eTag = "\"" + DigestUtils.md5DigestAsHex(jwkSet.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(Duration.ofSeconds(JWKS_MAX_AGE)).cachePublic())
+                .eTag(eTag)
+                .body(jwkSet);
+    }
+}
@@ -7,7 +7,10 @@ import com.identity_service.service.PermissionService;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -25,11 +28,20 @@ public class PermissionController {
                 .build();
     }
 
+    // a matching If-None-Match is answered with 304 without reading the permissions
     @GetMapping
-    public APIResponse<List<PermissionResponse>> getAll() {
-        return APIResponse.<List<PermissionResponse>>builder()
-                .result(permissionService.getAll())
-                .build();
+    public ResponseEntity<APIResponse<List<PermissionResponse>>> getAll(WebRequest webRequest) {
+        String eTag = permissionService.getETag();
+        if (webRequest.checkNotModified(eTag)) {
+            return null;
+        }
+
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .eTag(eTag)
+                .body(APIResponse.<List<PermissionResponse>>builder()
+                        .result(permissionService.getAll())
+                        .build());
     }
 
     @DeleteMapping("/{permission}")
@@ -10,7 +10,10 @@ import com.identity_service.service.RoleService;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -28,11 +31,20 @@ public class RoleController {
                 .build();
     }
 
+    // a matching If-None-Match is answered with 304 without reading the roles
     @GetMapping
-    public APIResponse<List<RoleResponse>> getAll() {
-        return APIResponse.<List<RoleResponse>>builder()
-                .result(roleService.getAll())
-                .build();
+    public ResponseEntity<APIResponse<List<RoleResponse>>> getAll(WebRequest webRequest) {
+        String eTag = roleService.getETag();
+        if (webRequest.checkNotModified(eTag)) {
+            return null;
+        }
+
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .eTag(eTag)
+                .body(APIResponse.<List<RoleResponse>>builder()
+                        .result(roleService.getAll())
+                        .build());
     }
 
     @DeleteMapping("/{role}")
@@ -1,6 +1,7 @@
 package com.identity_service.controller;
 
 import com.identity_service.dto.request.UserCreationRequest;
+import com.identity_service.dto.request.UserPatchRequest;
 import com.identity_service.dto.request.UserUpdateRequest;
 import com.identity_service.dto.response.APIResponse;
 import com.identity_service.dto.response.UserResponse;
@@ -12,7 +13,10 @@ import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -42,9 +46,18 @@ public class UserController {
         return APIResponse.<UserResponse>builder().result(userService.getUser(userId)).build();
     }
 
+    // a matching If-None-Match is answered with 304 without loading the user
     @GetMapping("/myInfo")
-    public APIResponse<UserResponse> getMyInfo() {
-        return APIResponse.<UserResponse>builder().result(userService.getMyInfo()).build();
+    public ResponseEntity<APIResponse<UserResponse>> getMyInfo(WebRequest webRequest) {
+        String eTag = userService.getMyInfoETag();
+        if (webRequest.checkNotModified(eTag)) {
+            return null;
+        }
+
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .eTag(eTag)
+                .body(APIResponse.<UserResponse>builder().result(userService.getMyInfo()).build());
     }
 
     @PutMapping("/{userId}")
@@ -52,6 +65,11 @@ public class UserController {
         return APIResponse.<UserResponse>builder().result(userService.updateUser(userId, request)).build();
     }
 
+    @PatchMapping("/{userId}")
+    public APIResponse<UserResponse> patchUser(@PathVariable String userId, @RequestBody @Valid UserPatchRequest request) {
+        return APIResponse.<UserResponse>builder().result(userService.patchUser(userId, request)).build();
+    }
+
     @DeleteMapping("/{userId}")
     public APIResponse<String> deleteUser(@PathVariable String userId) {
         userService.deleteUser(userId);
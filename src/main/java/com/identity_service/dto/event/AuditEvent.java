@@ -0,0 +1,25 @@
+package com.identity_service.dto.event;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.identity_service.enums.AuditAction;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.time.Instant;
+
+// one line of the audit log
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class AuditEvent {
+    Instant timestamp;
+    AuditAction action;
+    // who did it: authenticated user, or the username presented at login
+    String actor;
+    // what it was done to: username, role or permission name
+    String target;
+    String remoteAddress;
+}
@@ -0,0 +1,25 @@
+package com.identity_service.dto.event;
+
+import com.identity_service.enums.RevocationKind;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.util.Date;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class RevocationEvent {
+    RevocationKind kind;
+    String subject;
+    // TOKEN: expiration time of the revoked token
+    Date expirationTime;
+    // USER_EPOCH: new epoch, null when the user was deleted
+    Long epoch;
+    // USER: new entity version, null when the user was deleted
+    Long version;
+    // position in the feed, set by the feed
+    Long seq;
+}
@@ -0,0 +1,16 @@
+package com.identity_service.dto.request;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class AuthorizationCheck {
+    // username
+    String subject;
+    // permission name, or ROLE_<name> for role membership
+    String permission;
+}
@@ -0,0 +1,17 @@
+package com.identity_service.dto.request;
+
+import jakarta.validation.constraints.Size;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class AuthorizationRequest {
+    @Size(max = 1000, message = "AUTHORIZATION_BATCH_INVALID")
+    List<AuthorizationCheck> checks;
+}
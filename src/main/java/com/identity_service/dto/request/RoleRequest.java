@@ -14,4 +14,5 @@ public class RoleRequest {
     String name;
     String description;
     Set<String> permissions;
+    Set<String> inherits;
 }
@@ -0,0 +1,28 @@
+package com.identity_service.dto.request;
+
+import com.identity_service.validator.DobConstraint;
+import jakarta.validation.constraints.Size;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.time.LocalDate;
+import java.util.Set;
+
+// partial update: null fields are left unchanged
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class UserPatchRequest {
+    @Size(min = 8, message = "INVALID_PASSWORD")
+    String password;
+    String firstName;
+    String lastName;
+    @DobConstraint(min = 18, message = "INVALID_DOB")
+    LocalDate dob;
+    Set<String> addRoles;
+    Set<String> removeRoles;
+    // version the client last read, the update is rejected if the user changed since
+    Long version;
+}
@@ -0,0 +1,18 @@
+package com.identity_service.dto.response;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class AuthorizationResponse {
+    // one decision per check, in request order
+    List<Boolean> decisions;
+    // RBAC version the decisions were made against
+    long rbacVersion;
+}
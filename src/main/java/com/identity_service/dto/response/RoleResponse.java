@@ -15,4 +15,5 @@ public class RoleResponse {
     String name;
     String description;
     Set<Permission> permissions;
+    Set<String> inherits;
 }
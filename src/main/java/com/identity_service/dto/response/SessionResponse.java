@@ -0,0 +1,18 @@
+package com.identity_service.dto.response;
+
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.util.Date;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class SessionResponse {
+    String jti;
+    String device;
+    Date issuedAt;
+    Date expiresAt;
+}
@@ -0,0 +1,27 @@
+package com.identity_service.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.util.Date;
+
+// every dictionary version ever used in a compact scope claim, so tokens stay decodable across nodes and restarts
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@Entity
+public class PermissionDictionary {
+    @Id
+    String version;
+
+    // space separated, sorted authority names
+    @Column(columnDefinition = "TEXT")
+    String names;
+    Date createdAt;
+}
@@ -0,0 +1,30 @@
+package com.identity_service.entity;
+
+import com.identity_service.enums.RevocationKind;
+import jakarta.persistence.*;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.util.Date;
+
+// append-only change feed of revocations, tailed by every node by sequence number
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@Entity
+public class RevocationLog {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    Long seq;
+
+    @Enumerated(EnumType.STRING)
+    RevocationKind kind;
+    String subject;
+    Date expirationTime;
+    Long epoch;
+    Long version;
+    Date createdAt;
+}
@@ -2,6 +2,8 @@ package com.identity_service.entity;
 
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.JoinTable;
 import jakarta.persistence.ManyToMany;
 import lombok.*;
 import lombok.experimental.FieldDefaults;
@@ -22,4 +24,11 @@ public class Role {
 
     @ManyToMany
     Set<Permission> permissions;
+
+    // roles whose permissions this role grants as well, transitively
+    @ManyToMany
+    @JoinTable(name = "role_inherits",
+            joinColumns = @JoinColumn(name = "role_name"),
+            inverseJoinColumns = @JoinColumn(name = "inherits_name"))
+    Set<Role> inherits;
 }
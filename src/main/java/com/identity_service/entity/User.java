@@ -27,6 +27,12 @@ public class User {
     String lastName;
     LocalDate dob;
 
+    // bumped to revoke every token issued to this user
+    long tokenEpoch;
+
+    @Version
+    long version;
+
     @ManyToMany
     Set<Role> roles;
 }
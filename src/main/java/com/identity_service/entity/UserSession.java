@@ -0,0 +1,26 @@
+package com.identity_service.entity;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.util.Date;
+
+// one issued token, indexed by (username, expires_at) so a user's live sessions are a range scan
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@Entity
+public class UserSession {
+    @Id
+    String jti;
+    String username;
+    // User-Agent of the login request
+    String device;
+    Date issuedAt;
+    Date expiresAt;
+}
@@ -0,0 +1,16 @@
+package com.identity_service.enums;
+
+public enum AuditAction {
+    LOGIN_SUCCESS,
+    LOGIN_FAILURE,
+    LOGOUT,
+    LOGOUT_ALL,
+    REFRESH,
+    USER_CREATED,
+    USER_UPDATED,
+    USER_DELETED,
+    ROLE_CREATED,
+    ROLE_DELETED,
+    PERMISSION_CREATED,
+    PERMISSION_DELETED
+}
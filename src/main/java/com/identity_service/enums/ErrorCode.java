@@ -17,6 +17,9 @@ public enum ErrorCode {
     INVALID_DOB(1002, "Your age must be at least {min}", HttpStatus.BAD_REQUEST),
     UNAUTHORIZED(1003, "You do not have permission!", HttpStatus.FORBIDDEN),
     UNAUTHENTICATED(1003, "Unauthenticated!", HttpStatus.UNAUTHORIZED),
+    USER_VERSION_CONFLICT(1004, "User has been modified, reload and try again!", HttpStatus.CONFLICT),
+    AUTHORIZATION_BATCH_INVALID(1005, "Authorization batch must hold at most {max} checks!", HttpStatus.BAD_REQUEST),
+    LOGIN_OVERLOADED(1006, "Too many logins in progress, retry later!", HttpStatus.SERVICE_UNAVAILABLE),
     ;
     int code;
     String message;
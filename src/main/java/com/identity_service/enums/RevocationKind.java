@@ -0,0 +1,12 @@
+package com.identity_service.enums;
+
+public enum RevocationKind {
+    // a single token, subject = jti
+    TOKEN,
+    // token epoch of a user changed, subject = username
+    USER_EPOCH,
+    // roles or permissions changed, the event's sequence is the new RBAC version
+    RBAC,
+    // a user record changed, subject = username
+    USER
+}
@@ -3,6 +3,7 @@ package com.identity_service.exception;
 import com.identity_service.dto.response.APIResponse;
 import com.identity_service.enums.ErrorCode;
 import jakarta.validation.ConstraintViolation;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -16,6 +17,7 @@ import java.util.Objects;
 public class GlobalExceptionHandler {
 
     private static final String MIN_ATTRIBUTE = "min";
+    private static final String MAX_ATTRIBUTE = "max";
 
     @ExceptionHandler(value = Exception.class)
     public ResponseEntity<APIResponse> handlingException(Exception exception) {
@@ -38,6 +40,19 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(errorCode.getStatusCode()).body(apiResponse);
     }
 
+    @ExceptionHandler(value = OverloadedException.class)
+    public ResponseEntity<APIResponse> handlingOverloadedException(OverloadedException exception) {
+        ErrorCode errorCode = exception.getErrorCode();
+        APIResponse apiResponse = new APIResponse();
+
+        apiResponse.setCode(errorCode.getCode());
+        apiResponse.setMessage(errorCode.getMessage());
+
+        return ResponseEntity.status(errorCode.getStatusCode())
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(exception.getRetryAfterSeconds()))
+                .body(apiResponse);
+    }
+
     @ExceptionHandler(value = MethodArgumentNotValidException.class)
     public ResponseEntity<APIResponse> handlingValidException(MethodArgumentNotValidException exception) {
         String enumKey = exception.getFieldError().getDefaultMessage();
@@ -45,7 +60,7 @@ public class GlobalExceptionHandler {
         ErrorCode errorCode = ErrorCode.valueOf(enumKey);
         Map<String, Object> attributes = null;
 
-        // map min attribute in Annotation to Exception message
+        // map min/max attributes in Annotation to Exception message
         var constraintViolation = exception.getBindingResult().getAllErrors().getFirst().unwrap(ConstraintViolation.class);
         attributes = constraintViolation.getConstraintDescriptor().getAttributes();
 
@@ -61,8 +76,10 @@ public class GlobalExceptionHandler {
 
     private String mapAttribute(String message, Map<String, Object> attributes) {
         String minValue = String.valueOf(attributes.get(MIN_ATTRIBUTE));
+        String maxValue = String.valueOf(attributes.get(MAX_ATTRIBUTE));
 
-        return message.replace("{" + MIN_ATTRIBUTE + "}", minValue);
+        return message.replace("{" + MIN_ATTRIBUTE + "}", minValue)
+                .replace("{" + MAX_ATTRIBUTE + "}", maxValue);
     }
 
     @ExceptionHandler(value = AccessDeniedException.class)
@@ -0,0 +1,17 @@
+package com.identity_service.exception;
+
+import com.identity_service.enums.ErrorCode;
+
+// request shed under overload, answered with a Retry-After header
+public class OverloadedException extends AppException {
+    private final long retryAfterSeconds;
+
+    public OverloadedException(ErrorCode errorCode, long retryAfterSeconds) {
+        super(errorCode);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
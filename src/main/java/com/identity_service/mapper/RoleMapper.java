@@ -10,7 +10,13 @@ import org.mapstruct.Mapping;
 public interface RoleMapper {
 
     @Mapping(target = "permissions", ignore = true)
+    @Mapping(target = "inherits", ignore = true)
     Role toRole(RoleRequest request);
 
     RoleResponse toRoleResponse(Role role);
+
+    // inherited roles are listed by name
+    default String toRoleName(Role role) {
+        return role.getName();
+    }
 }
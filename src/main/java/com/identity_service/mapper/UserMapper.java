@@ -1,19 +1,29 @@
 package com.identity_service.mapper;
 
 import com.identity_service.dto.request.UserCreationRequest;
+import com.identity_service.dto.request.UserPatchRequest;
 import com.identity_service.dto.request.UserUpdateRequest;
 import com.identity_service.dto.response.UserResponse;
 import com.identity_service.entity.User;
+import org.mapstruct.BeanMapping;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.mapstruct.MappingTarget;
+import org.mapstruct.NullValuePropertyMappingStrategy;
 
-@Mapper(componentModel = "spring")
+@Mapper(componentModel = "spring", uses = RoleMapper.class)
 public interface UserMapper {
     User toUser(UserCreationRequest request);
 
     @Mapping(target = "roles", ignore = true)
     void updateUser(@MappingTarget User updateUser, UserUpdateRequest request);
 
+    // password, roles and version are handled by UserService.patchUser
+    @BeanMapping(nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
+    @Mapping(target = "password", ignore = true)
+    @Mapping(target = "roles", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    void patchUser(@MappingTarget User user, UserPatchRequest request);
+
     UserResponse toUserResponse(User user);
 }
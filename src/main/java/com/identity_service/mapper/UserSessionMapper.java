@@ -0,0 +1,10 @@
+package com.identity_service.mapper;
+
+import com.identity_service.dto.response.SessionResponse;
+import com.identity_service.entity.UserSession;
+import org.mapstruct.Mapper;
+
+@Mapper(componentModel = "spring")
+public interface UserSessionMapper {
+    SessionResponse toSessionResponse(UserSession session);
+}
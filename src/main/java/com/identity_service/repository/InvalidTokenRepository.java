@@ -2,6 +2,19 @@ package com.identity_service.repository;
 
 import com.identity_service.entity.InvalidToken;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Date;
+import java.util.List;
 
 public interface InvalidTokenRepository extends JpaRepository<InvalidToken, String> {
+    List<InvalidToken> findByExpirationTimeAfter(Date time);
+
+    @Transactional
+    @Modifying
+    @Query("delete from InvalidToken t where t.expirationTime < :cutoff")
+    int deleteExpiredBefore(@Param("cutoff") Date cutoff);
 }
@@ -0,0 +1,9 @@
+package com.identity_service.repository;
+
+import com.identity_service.entity.PermissionDictionary;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface PermissionDictionaryRepository extends JpaRepository<PermissionDictionary, String> {
+}
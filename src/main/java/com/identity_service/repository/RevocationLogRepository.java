@@ -0,0 +1,31 @@
+package com.identity_service.repository;
+
+import com.identity_service.entity.RevocationLog;
+import com.identity_service.enums.RevocationKind;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Date;
+import java.util.List;
+
+@Repository
+public interface RevocationLogRepository extends JpaRepository<RevocationLog, Long> {
+    List<RevocationLog> findBySeqGreaterThanOrderBySeqAsc(Long seq, Pageable pageable);
+
+    @Query("select coalesce(max(r.seq), 0) from RevocationLog r")
+    long findMaxSeq();
+
+    @Query("select coalesce(max(r.seq), 0) from RevocationLog r where r.kind = :kind")
+    long findMaxSeqByKind(@Param("kind") RevocationKind kind);
+
+    @Transactional
+    @Modifying
+    // RBAC entries are kept: the latest one is the RBAC version and they are rare
+    @Query("delete from RevocationLog r where r.createdAt < :cutoff and r.kind <> com.identity_service.enums.RevocationKind.RBAC")
+    int deleteCreatedBefore(@Param("cutoff") Date cutoff);
+}
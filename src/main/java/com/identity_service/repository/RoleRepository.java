@@ -2,8 +2,25 @@ package com.identity_service.repository;
 
 import com.identity_service.entity.Role;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 @Repository
 public interface RoleRepository extends JpaRepository<Role, String> {
+    // roles with their permissions in one query, usable outside a transaction
+    @Query("select distinct r from Role r left join fetch r.permissions")
+    List<Role> findAllWithPermissions();
+
+    // [role name, inherited role name] edges of the hierarchy
+    @Query("select r.name, i.name from Role r join r.inherits i")
+    List<Object[]> findInheritance();
+
+    // edges pointing at a role, removed before the role itself
+    @Modifying
+    @Query(value = "delete from role_inherits where inherits_name = :name", nativeQuery = true)
+    int deleteInheritanceOf(@Param("name") String name);
 }
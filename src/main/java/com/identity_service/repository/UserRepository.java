@@ -1,13 +1,37 @@
 package com.identity_service.repository;
 
 import com.identity_service.entity.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, String> {
     boolean existsByUsername(String username);
     Optional<User> findByUsername(String username);
+
+    @Query("select u.tokenEpoch from User u where u.username = :username")
+    Optional<Long> findTokenEpochByUsername(@Param("username") String username);
+
+    @Query("select u.version from User u where u.username = :username")
+    Optional<Long> findVersionByUsername(@Param("username") String username);
+
+    // keyset pagination over the unique username index
+    @Query("select u.username from User u where u.username > :after order by u.username")
+    List<String> findUsernamesAfter(@Param("after") String after, Pageable pageable);
+
+    // [username, role name] pairs, role name null for users without roles
+    @Query("select u.username, r.name from User u left join u.roles r where u.username in :usernames")
+    List<Object[]> findRoleNamesByUsernameIn(@Param("usernames") Collection<String> usernames);
+
+    @Modifying
+    @Query("update User u set u.tokenEpoch = u.tokenEpoch + 1 where u.username = :username")
+    int incrementTokenEpoch(@Param("username") String username);
 }
@@ -0,0 +1,32 @@
+package com.identity_service.repository;
+
+import com.identity_service.entity.UserSession;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Date;
+import java.util.List;
+
+@Repository
+public interface UserSessionRepository extends JpaRepository<UserSession, String> {
+    List<UserSession> findByUsernameAndExpiresAtAfterOrderByIssuedAtDesc(String username, Date time);
+
+    @Transactional
+    @Modifying
+    @Query("delete from UserSession s where s.jti = :jti")
+    int deleteByJti(@Param("jti") String jti);
+
+    @Transactional
+    @Modifying
+    @Query("delete from UserSession s where s.username = :username")
+    int deleteByUsername(@Param("username") String username);
+
+    @Transactional
+    @Modifying
+    @Query("delete from UserSession s where s.expiresAt < :cutoff")
+    int deleteExpiredBefore(@Param("cutoff") Date cutoff);
+}
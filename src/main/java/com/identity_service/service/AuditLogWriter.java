@@ -0,0 +1,195 @@
+package com.identity_service.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.identity_service.dto.event.AuditEvent;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongSupplier;
+import java.util.stream.Stream;
+
+/**
+ * Background consumer of the {@link AuditRingBuffer}: drains events in batches, serializes them as JSON lines
+ * into one buffer and appends it with a single {@link FileChannel} write. {@code audit.log} is rotated to
+ * {@code audit-<timestamp>-<sequence>.log} once it would exceed the size limit; the oldest rotated files are deleted.
+ */
+@Slf4j
+public class AuditLogWriter implements Runnable {
+    static final String ACTIVE_FILE = "audit.log";
+    private static final DateTimeFormatter ROTATED_SUFFIX = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS");
+    private static final byte NEW_LINE = '\n';
+
+    private final AuditRingBuffer ringBuffer;
+    private final ObjectMapper objectMapper;
+    private final LongSupplier droppedEvents;
+    private final Path directory;
+    private final int batchSize;
+    private final long maxFileSize;
+    private final int maxHistory;
+    private final long idleNanos;
+
+    private final List<AuditEvent> batch;
+    private ByteBuffer buffer = ByteBuffer.allocateDirect(256 * 1024);
+    private FileChannel channel;
+    private long reportedDrops;
+    private volatile boolean running = true;
+
+    public AuditLogWriter(AuditRingBuffer ringBuffer, ObjectMapper objectMapper, LongSupplier droppedEvents,
+                          Path directory, int batchSize, long maxFileSize, int maxHistory, long idleMillis) {
+        this.ringBuffer = ringBuffer;
+        this.objectMapper = objectMapper;
+        this.droppedEvents = droppedEvents;
+        this.directory = directory;
+        this.batchSize = batchSize;
+        this.maxFileSize = maxFileSize;
+        this.maxHistory = maxHistory;
+        this.idleNanos = idleMillis * 1_000_000;
+        this.batch = new ArrayList<>(batchSize);
+    }
+
+    @Override
+    public void run() {
+        while (running) {
+            try {
+                int written = writeBatch();
+                reportDrops();
+
+                if (written == 0) {
+                    LockSupport.parkNanos(idleNanos);
+                }
+            } catch (IOException e) {
+                // the drained batch is lost, the file is reopened for the next one
+                log.error("Could not write {} audit events", batch.size(), e);
+                close();
+                LockSupport.parkNanos(idleNanos);
+            }
+        }
+
+        // stopped: flush what is left
+        try {
+            while (writeBatch() > 0) {
+                // keep draining
+            }
+        } catch (IOException e) {
+            log.error("Could not flush the audit log", e);
+        } finally {
+            close();
+        }
+    }
+
+    public void stop() {
+        running = false;
+    }
+
+    // returns the number of events written
+    int writeBatch() throws IOException {
+        batch.clear();
+        int drained = ringBuffer.drainTo(batch, batchSize);
+        if (drained == 0) {
+            return 0;
+        }
+
+        buffer.clear();
+        for (AuditEvent event : batch) {
+            append(objectMapper.writeValueAsBytes(event));
+        }
+        buffer.flip();
+
+        if (channel == null) {
+            Files.createDirectories(directory);
+            channel = open();
+        }
+        if (channel.size() > 0 && channel.size() + buffer.remaining() > maxFileSize) {
+            rotate();
+        }
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+
+        return drained;
+    }
+
+    private void append(byte[] line) {
+        if (buffer.remaining() < line.length + 1) {
+            // a batch larger than the buffer: grow once, the buffer is reused for every later batch
+            ByteBuffer larger = ByteBuffer.allocateDirect(Math.max(buffer.capacity() * 2, buffer.position() + line.length + 1));
+            buffer.flip();
+            larger.put(buffer);
+            buffer = larger;
+        }
+
+        buffer.put(line).put(NEW_LINE);
+    }
+
+    private FileChannel open() throws IOException {
+        return FileChannel.open(directory.resolve(ACTIVE_FILE),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    private void rotate() throws IOException {
+        close();
+
+        Files.move(directory.resolve(ACTIVE_FILE), rotatedFile(), StandardCopyOption.ATOMIC_MOVE);
+        channel = open();
+
+        deleteOldFiles();
+    }
+
+    // an atomic move replaces an existing target: several rotations within one millisecond get a sequence
+    private Path rotatedFile() {
+        String timestamp = LocalDateTime.now().format(ROTATED_SUFFIX);
+
+        for (int sequence = 0; ; sequence++) {
+            Path rotated = directory.resolve(String.format("audit-%s-%03d.log", timestamp, sequence));
+            if (Files.notExists(rotated)) {
+                return rotated;
+            }
+        }
+    }
+
+    // rotated names sort chronologically
+    private void deleteOldFiles() throws IOException {
+        List<Path> rotated;
+        try (Stream<Path> files = Files.list(directory)) {
+            rotated = files
+                    .filter(file -> file.getFileName().toString().startsWith("audit-"))
+                    .sorted()
+                    .toList();
+        }
+
+        for (int i = 0; i < rotated.size() - maxHistory; i++) {
+            Files.deleteIfExists(rotated.get(i));
+        }
+    }
+
+    private void reportDrops() {
+        long dropped = droppedEvents.getAsLong();
+        if (dropped > reportedDrops) {
+            log.warn("Audit buffer full, {} events dropped", dropped - reportedDrops);
+            reportedDrops = dropped;
+        }
+    }
+
+    private void close() {
+        try {
+            if (channel != null) {
+                channel.close();
+            }
+        } catch (IOException e) {
+            log.warn("Could not close the audit log", e);
+        } finally {
+            channel = null;
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.identity_service.service;
+
+import com.identity_service.dto.event.AuditEvent;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded lock-free multi-producer, single-consumer queue (sequence-per-slot ring, after D. Vyukov).
+ * Producers claim a slot with one CAS and never wait: a full buffer rejects the event instead.
+ */
+public class AuditRingBuffer {
+    private final AtomicReferenceArray<AuditEvent> events;
+    // slot i is free for the producer of position p when sequences[i] == p, readable when == p + 1
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+    // only touched by the consumer
+    private long head;
+
+    public AuditRingBuffer(int capacity) {
+        if (capacity < 2 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("capacity must be a power of two: " + capacity);
+        }
+
+        events = new AtomicReferenceArray<>(capacity);
+        sequences = new AtomicLongArray(capacity);
+        mask = capacity - 1;
+
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    public boolean offer(AuditEvent event) {
+        long position;
+        int index;
+
+        while (true) {
+            position = tail.get();
+            index = (int) position & mask;
+            long sequence = sequences.getAcquire(index);
+
+            if (sequence < position) {
+                // the consumer has not freed this slot yet
+                return false;
+            }
+            if (sequence == position && tail.compareAndSet(position, position + 1)) {
+                break;
+            }
+        }
+
+        events.setPlain(index, event);
+        sequences.setRelease(index, position + 1);
+        return true;
+    }
+
+    // consumer thread only
+    public int drainTo(List<AuditEvent> batch, int limit) {
+        int drained = 0;
+
+        while (drained < limit) {
+            int index = (int) head & mask;
+            if (sequences.getAcquire(index) != head + 1) {
+                break;
+            }
+
+            batch.add(events.getPlain(index));
+            events.setPlain(index, null);
+            sequences.setRelease(index, head + mask + 1);
+
+            head++;
+            drained++;
+        }
+
+        return drained;
+    }
+}
@@ -0,0 +1,150 @@
+package com.identity_service.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.identity_service.dto.event.AuditEvent;
+import com.identity_service.enums.AuditAction;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Structured audit trail of authentication and user/RBAC administration events. Recording only builds the
+ * event and offers it to a lock-free ring buffer, a background thread writes it to {@code audit.path};
+ * when the buffer is full the event is dropped and counted rather than slowing down the request.
+ */
+@Service
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class AuditService implements SmartLifecycle {
+    ObjectMapper objectMapper;
+
+    AtomicLong droppedEvents = new AtomicLong();
+
+    @NonFinal
+    AuditRingBuffer ringBuffer;
+
+    @NonFinal
+    AuditLogWriter writer;
+
+    @NonFinal
+    Thread writerThread;
+
+    @NonFinal
+    @Value("${audit.enabled:true}")
+    protected boolean ENABLED;
+
+    @NonFinal
+    @Value("${audit.path:logs/audit}")
+    protected String PATH;
+
+    // events, power of two
+    @NonFinal
+    @Value("${audit.buffer-size:65536}")
+    protected int BUFFER_SIZE;
+
+    @NonFinal
+    @Value("${audit.batch-size:4096}")
+    protected int BATCH_SIZE;
+
+    @NonFinal
+    @Value("${audit.max-file-size:104857600}")
+    protected long MAX_FILE_SIZE;
+
+    @NonFinal
+    @Value("${audit.max-history:30}")
+    protected int MAX_HISTORY;
+
+    @NonFinal
+    @Value("${audit.idle-interval:100}")
+    protected long IDLE_INTERVAL;
+
+    // actor: the authenticated user, if any
+    public void record(AuditAction action, String target) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        boolean authenticated = Objects.nonNull(authentication) && !(authentication instanceof AnonymousAuthenticationToken);
+
+        record(action, authenticated ? authentication.getName() : null, target);
+    }
+
+    public void record(AuditAction action, String actor, String target) {
+        AuditRingBuffer buffer = ringBuffer;
+        if (Objects.isNull(buffer)) {
+            return;
+        }
+
+        AuditEvent event = AuditEvent.builder()
+                .timestamp(Instant.now())
+                .action(action)
+                .actor(actor)
+                .target(target)
+                .remoteAddress(remoteAddress())
+                .build();
+
+        if (!buffer.offer(event)) {
+            droppedEvents.incrementAndGet();
+        }
+    }
+
+    @Override
+    public void start() {
+        if (!ENABLED) {
+            return;
+        }
+
+        ringBuffer = new AuditRingBuffer(BUFFER_SIZE);
+        writer = new AuditLogWriter(ringBuffer, objectMapper, droppedEvents::get,
+                Path.of(PATH), BATCH_SIZE, MAX_FILE_SIZE, MAX_HISTORY, IDLE_INTERVAL);
+
+        writerThread = new Thread(writer, "audit-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    // stops after the web server, the writer flushes what is still buffered
+    @Override
+    public void stop() {
+        if (Objects.isNull(writerThread)) {
+            return;
+        }
+
+        writer.stop();
+        LockSupport.unpark(writerThread);
+        try {
+            writerThread.join(5_000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        writerThread = null;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return Objects.nonNull(writerThread);
+    }
+
+    @Override
+    public int getPhase() {
+        return 0;
+    }
+
+    private String remoteAddress() {
+        return RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes
+                ? attributes.getRequest().getRemoteAddr()
+                : null;
+    }
+}
@@ -1,20 +1,21 @@
 package com.identity_service.service;
 
+import com.identity_service.configuration.InternedMethodSecurityExpressionRoot;
+import com.identity_service.configuration.JwtKeyProvider;
+import com.identity_service.configuration.ScopeAuthoritiesConverter;
 import com.identity_service.dto.request.AuthenticationRequest;
 import com.identity_service.dto.request.IntrospectRequest;
 import com.identity_service.dto.request.LogoutRequest;
 import com.identity_service.dto.request.RefreshRequest;
 import com.identity_service.dto.response.AuthenticationResponse;
 import com.identity_service.dto.response.IntrospectResponse;
-import com.identity_service.entity.InvalidToken;
+import com.identity_service.entity.Role;
 import com.identity_service.entity.User;
+import com.identity_service.enums.AuditAction;
 import com.identity_service.enums.ErrorCode;
 import com.identity_service.exception.AppException;
-import com.identity_service.repository.InvalidTokenRepository;
 import com.identity_service.repository.UserRepository;
 import com.nimbusds.jose.*;
-import com.nimbusds.jose.crypto.MACSigner;
-import com.nimbusds.jose.crypto.MACVerifier;
 import com.nimbusds.jwt.JWTClaimsSet;
 import com.nimbusds.jwt.SignedJWT;
 import lombok.AccessLevel;
@@ -23,17 +24,30 @@ import lombok.experimental.FieldDefaults;
 import lombok.experimental.NonFinal;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.util.CollectionUtils;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
 import java.text.ParseException;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Date;
-import java.util.StringJoiner;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 @Service
 @RequiredArgsConstructor
@@ -41,11 +55,18 @@ import java.util.UUID;
 @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
 public class AuthenticationService {
     UserRepository userRepository;
-    InvalidTokenRepository invalidTokenRepository;
-
-    @NonFinal
-    @Value("${jwt.signerKey}")
-    protected String SIGNER_KEY;
+    RevocationService revocationService;
+    JwtKeyProvider jwtKeyProvider;
+    TokenEpochService tokenEpochService;
+    PermissionDictionaryService permissionDictionaryService;
+    AuditService auditService;
+    UserSessionService userSessionService;
+    RbacGraphService rbacGraphService;
+    UsernameIndexService usernameIndexService;
+    LoginAdmissionController loginAdmissionController;
+
+    // jti -> refresh in flight or completed within the grace period
+    Map<String, CompletableFuture<RefreshResult>> refreshes = new ConcurrentHashMap<>();
 
     @NonFinal
     @Value("${jwt.valid-duration}")
@@ -55,33 +76,62 @@ public class AuthenticationService {
     @Value("${jwt.refreshable-duration}")
     protected long REFRESHABLE_DURATION;
 
+    // encode roles/permissions as a dictionary bitset instead of a space separated list
+    @NonFinal
+    @Value("${jwt.compact-scope:false}")
+    protected boolean COMPACT_SCOPE;
+
+    // concurrent refreshes of one token within this period get the same new token, in second
+    @NonFinal
+    @Value("${jwt.refresh-grace-period:10}")
+    protected long REFRESH_GRACE_PERIOD;
+
     public AuthenticationResponse authenticate(AuthenticationRequest request) {
-        var user = userRepository.findByUsername(request.getUsername()).orElseThrow(() -> new AppException(ErrorCode.USER_NOT_FOUND));
+        // unknown usernames (credential stuffing) are answered from memory
+        if (!usernameIndexService.mightExist(request.getUsername())) {
+            auditService.record(AuditAction.LOGIN_FAILURE, request.getUsername(), request.getUsername());
+            throw new AppException(ErrorCode.USER_NOT_FOUND);
+        }
+
+        var user = userRepository.findByUsername(request.getUsername()).orElseThrow(() -> {
+            auditService.record(AuditAction.LOGIN_FAILURE, request.getUsername(), request.getUsername());
+            return new AppException(ErrorCode.USER_NOT_FOUND);
+        });
 
         PasswordEncoder passwordEncoder = new BCryptPasswordEncoder(10);
-        boolean isAuthenticated = passwordEncoder.matches(request.getPassword(), user.getPassword());
+        boolean isAuthenticated;
+
+        // bcrypt is the bottleneck under a login surge: shed load here instead of queueing on Tomcat threads
+        loginAdmissionController.acquire();
+        try {
+            isAuthenticated = passwordEncoder.matches(request.getPassword(), user.getPassword());
+        } finally {
+            loginAdmissionController.release();
+        }
 
         if (!isAuthenticated) {
+            auditService.record(AuditAction.LOGIN_FAILURE, user.getUsername(), user.getUsername());
             throw new AppException(ErrorCode.UNAUTHENTICATED);
         }
 
-        var token = generateToken(user);
-
-        log.info("Signer key: {}", SIGNER_KEY);
+        var token = issueToken(user);
+        auditService.record(AuditAction.LOGIN_SUCCESS, user.getUsername(), user.getUsername());
 
         return AuthenticationResponse.builder().token(token).isAuthenticated(true).build();
     }
 
     public IntrospectResponse introspect(IntrospectRequest request) throws JOSEException, ParseException {
-        var token = request.getToken();
-        boolean isValid = true;
+        return IntrospectResponse.builder().isValid(isValid(request.getToken())).build();
+    }
 
+    // verification core of the HTTP and binary introspection endpoints
+    public boolean isValid(String token) throws JOSEException, ParseException {
         try {
             verifyToken(token, false);
+            return true;
         } catch (AppException e) {
-            isValid = false;
+            return false;
         }
-        return IntrospectResponse.builder().isValid(isValid).build();
     }
 
     public void logout(LogoutRequest request) throws ParseException, JOSEException {
@@ -91,57 +141,158 @@ public class AuthenticationService {
             String jti = signedToken.getJWTClaimsSet().getJWTID();
             Date expirationTime = signedToken.getJWTClaimsSet().getExpirationTime();
 
-            InvalidToken invalidToken = InvalidToken.builder()
-                    .id(jti)
-                    .expirationTime(expirationTime)
-                    .build();
+            revocationService.revoke(jti, expirationTime);
+            userSessionService.remove(jti);
 
-            invalidTokenRepository.save(invalidToken);
+            String username = signedToken.getJWTClaimsSet().getSubject();
+            auditService.record(AuditAction.LOGOUT, username, username);
         } catch (AppException e) {
             log.info("Token already expired");
         }
     }
 
+    // revoke every session of the token's user by bumping the user's token epoch,
+    // then drop the user's session rows in one delete
+    public void logoutAll(LogoutRequest request) throws ParseException, JOSEException {
+        var signedToken = verifyToken(request.getToken(), true);
+
+        String username = signedToken.getJWTClaimsSet().getSubject();
+        tokenEpochService.revokeAll(username);
+        userSessionService.removeAll(username);
+        auditService.record(AuditAction.LOGOUT_ALL, username, username);
+    }
+
+    // single flight per jti: the first caller refreshes, callers presenting the same token while it runs
+    // or within the grace period get its result instead of failing on the now revoked token
     public AuthenticationResponse refreshToken(RefreshRequest request) throws ParseException, JOSEException {
+        String jti = SignedJWT.parse(request.getToken()).getJWTClaimsSet().getJWTID();
+        if (jti == null) {
+            throw new AppException(ErrorCode.UNAUTHENTICATED);
+        }
+
+        CompletableFuture<RefreshResult> refresh = new CompletableFuture<>();
+        CompletableFuture<RefreshResult> existing = refreshes.putIfAbsent(jti, refresh);
+
+        while (existing != null) {
+            // a failed refresh says nothing about this caller's token
+            RefreshResult result = existing.exceptionally(e -> null).join();
+
+            if (result == null || result.isExpired()) {
+                // past the grace period: refresh normally, which rejects the revoked token
+                refreshes.remove(jti, existing);
+                existing = refreshes.putIfAbsent(jti, refresh);
+                continue;
+            }
+
+            // the jti alone is not proof of possession
+            if (!result.isFor(request.getToken())) {
+                throw new AppException(ErrorCode.UNAUTHENTICATED);
+            }
+            return result.response();
+        }
+
+        // this caller refreshes, the others wait on its future
+
+        try {
+            var response = doRefreshToken(request);
+            refresh.complete(new RefreshResult(request.getToken(), response,
+                    System.currentTimeMillis() + REFRESH_GRACE_PERIOD * 1000));
+            return response;
+        } catch (ParseException | JOSEException | RuntimeException e) {
+            refresh.completeExceptionally(e);
+            refreshes.remove(jti, refresh);
+            throw e;
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.refresh-grace-period:10}", timeUnit = TimeUnit.SECONDS)
+    public void purgeRefreshes() {
+        refreshes.values().removeIf(refresh -> refresh.isDone()
+                && (refresh.isCompletedExceptionally() || refresh.join().isExpired()));
+    }
+
+    private AuthenticationResponse doRefreshToken(RefreshRequest request) throws ParseException, JOSEException {
         var signedJWT = verifyToken(request.getToken(), true);
 
         // invalidate old token
         var jti = signedJWT.getJWTClaimsSet().getJWTID();
         var expirationTime = signedJWT.getJWTClaimsSet().getExpirationTime();
 
-        InvalidToken invalidToken = InvalidToken.builder()
-                .id(jti)
-                .expirationTime(expirationTime)
-                .build();
-
-        invalidTokenRepository.save(invalidToken);
+        revocationService.revoke(jti, expirationTime);
+        userSessionService.remove(jti);
 
         // generate new token
         var username = signedJWT.getJWTClaimsSet().getSubject();
         var user = userRepository.findByUsername(username).orElseThrow(() -> new AppException(ErrorCode.UNAUTHENTICATED));
 
-        var token = generateToken(user);
+        var token = issueToken(user);
+        auditService.record(AuditAction.REFRESH, username, username);
 
         return AuthenticationResponse.builder().token(token).isAuthenticated(true).build();
     }
 
+    private record RefreshResult(String token, AuthenticationResponse response, long expiresAt) {
+        boolean isExpired() {
+            return System.currentTimeMillis() > expiresAt;
+        }
+
+        boolean isFor(String presentedToken) {
+            return MessageDigest.isEqual(token.getBytes(StandardCharsets.UTF_8), presentedToken.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    // token handed to a client: recorded in the user's session registry
+    private String issueToken(User user) {
+        String jti = UUID.randomUUID().toString();
+        Instant now = Instant.now();
+        Date issueTime = Date.from(now);
+        Date expirationTime = Date.from(now.plus(VALID_DURATION, ChronoUnit.SECONDS));
+
+        String token = generateToken(user, jti, issueTime, expirationTime);
+        userSessionService.register(jti, user.getUsername(), issueTime, expirationTime);
+
+        return token;
+    }
+
+    String generateToken(User user) {
+        Instant now = Instant.now();
+
+        return generateToken(user, UUID.randomUUID().toString(),
+                Date.from(now), Date.from(now.plus(VALID_DURATION, ChronoUnit.SECONDS)));
+    }
 
     // tạo jwt: json web token
-    private String generateToken(User user) {
+    private String generateToken(User user, String jti, Date issueTime, Date expirationTime) {
         // tạo header
-        JWSHeader header = new JWSHeader(JWSAlgorithm.HS512);
+        JWSHeader header = jwtKeyProvider.createHeader();
 
         // claim: các data trong body của payload
-        JWTClaimsSet jwtClaimsSet = new JWTClaimsSet.Builder()
+        JWTClaimsSet.Builder claimsBuilder = new JWTClaimsSet.Builder()
                 .subject(user.getUsername())
                 .issuer("mq")
-                .issueTime(new Date())
-                .expirationTime(new Date(
-                        Instant.now().plus(VALID_DURATION, ChronoUnit.SECONDS).toEpochMilli()
-                ))
-                .jwtID(UUID.randomUUID().toString())
-                .claim("scope", buildScope(user))
-                .build();
+                .issueTime(issueTime)
+                .expirationTime(expirationTime)
+                .jwtID(jti)
+                .claim("epoch", user.getTokenEpoch())
+                .claim(InternedMethodSecurityExpressionRoot.USER_ID_CLAIM, user.getId());
+
+        if (COMPACT_SCOPE) {
+            var authorities = buildAuthorities(user);
+            var dictionary = permissionDictionaryService.dictionaryFor(authorities);
+            List<String> leftovers = new ArrayList<>();
+
+            claimsBuilder
+                    .claim(ScopeAuthoritiesConverter.COMPACT_SCOPE_CLAIM, dictionary.encode(authorities, leftovers))
+                    .claim(ScopeAuthoritiesConverter.COMPACT_SCOPE_VERSION_CLAIM, dictionary.getVersion());
+
+            if (!leftovers.isEmpty()) {
+                claimsBuilder.claim(ScopeAuthoritiesConverter.SCOPE_CLAIM, String.join(" ", leftovers));
+            }
+        } else {
+            claimsBuilder.claim(ScopeAuthoritiesConverter.SCOPE_CLAIM, buildScope(user));
+        }
+
+        JWTClaimsSet jwtClaimsSet = claimsBuilder.build();
 
         // tạo payload
         Payload payload = new Payload(jwtClaimsSet.toJSONObject());
@@ -151,8 +302,8 @@ public class AuthenticationService {
 
         // tạo signature
         try {
-            // MAC signer: encrypted key == decrypted key
-            jwsObject.sign(new MACSigner(SIGNER_KEY.getBytes()));
+            // HS512: MAC signer (encrypted key == decrypted key), RS256/ES256: private key
+            jwsObject.sign(jwtKeyProvider.getSigner());
             return jwsObject.serialize();
         } catch (JOSEException e) {
             throw new RuntimeException(e);
@@ -160,29 +311,57 @@ public class AuthenticationService {
     }
 
     private String buildScope(User user) {
-        StringJoiner stringJoiner = new StringJoiner(" ");
+        return String.join(" ", buildAuthorities(user));
+    }
 
+    // resolved from the precomputed closure, the hierarchy is only walked for roles newer than the snapshot
+    private Set<String> buildAuthorities(User user) {
+        if (CollectionUtils.isEmpty(user.getRoles())) {
+            return new LinkedHashSet<>();
+        }
+
+        RbacGraph graph = rbacGraphService.getGraph();
+        List<String> roleNames = user.getRoles().stream().map(Role::getName).toList();
+
+        if (roleNames.stream().allMatch(graph::containsRole)) {
+            return graph.authoritiesOf(roleNames);
+        }
 
-        if (!CollectionUtils.isEmpty(user.getRoles())) {
-            user.getRoles().forEach(role -> {
-                stringJoiner.add("ROLE_" + role.getName());
-                if (!CollectionUtils.isEmpty(role.getPermissions())) {
-                    role.getPermissions().forEach(permission ->
-                            stringJoiner.add(permission.getName()));
-                }
-            });
+        Set<String> authorities = new LinkedHashSet<>();
+        Set<String> visited = new HashSet<>();
+        Deque<Role> pending = new ArrayDeque<>(user.getRoles());
+
+        while (!pending.isEmpty()) {
+            var role = pending.pop();
+            if (!visited.add(role.getName())) {
+                continue;
+            }
+
+            authorities.add("ROLE_" + role.getName());
+            if (!CollectionUtils.isEmpty(role.getPermissions())) {
+                role.getPermissions().forEach(permission ->
+                        authorities.add(permission.getName()));
+            }
+            if (!CollectionUtils.isEmpty(role.getInherits())) {
+                pending.addAll(role.getInherits());
+            }
         }
 
-        return stringJoiner.toString();
+        return authorities;
     }
 
     private SignedJWT verifyToken(String token, boolean isRefresh) throws JOSEException, ParseException {
-        // xác thực token dựa trên khóa SIGNER_KEY
-        JWSVerifier verifier = new MACVerifier(SIGNER_KEY.getBytes());
+        // xác thực token dựa trên signing key đã cấu hình
+        JWSVerifier verifier = jwtKeyProvider.getVerifier();
 
         // parse String token thành SignedJWT (bao gồm header, payload, signature)
         SignedJWT signedJWT = SignedJWT.parse(token);
 
+        // reject tokens signed with any other algorithm
+        if (!jwtKeyProvider.getAlgorithm().equals(signedJWT.getHeader().getAlgorithm())) {
+            throw new AppException(ErrorCode.UNAUTHENTICATED);
+        }
+
         Date expirationDate = isRefresh
                 ? new Date(signedJWT.getJWTClaimsSet().getIssueTime()
                 .toInstant().plus(REFRESHABLE_DURATION, ChronoUnit.SECONDS).toEpochMilli())
@@ -196,7 +375,13 @@ public class AuthenticationService {
             throw new AppException(ErrorCode.UNAUTHENTICATED);
         }
 
-        if (invalidTokenRepository.existsById(signedJWT.getJWTClaimsSet().getJWTID())) {
+        if (revocationService.isRevoked(signedJWT.getJWTClaimsSet().getJWTID())) {
+            throw new AppException(ErrorCode.UNAUTHENTICATED);
+        }
+
+        // tokens issued before the epoch claim existed belong to epoch 0
+        Long epoch = signedJWT.getJWTClaimsSet().getLongClaim("epoch");
+        if (!tokenEpochService.isCurrent(signedJWT.getJWTClaimsSet().getSubject(), epoch == null ? 0 : epoch)) {
             throw new AppException(ErrorCode.UNAUTHENTICATED);
         }
 
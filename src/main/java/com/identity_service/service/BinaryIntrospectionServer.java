@@ -0,0 +1,195 @@
+package com.identity_service.service;
+
+import com.nimbusds.jose.JOSEException;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.text.ParseException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Token introspection over length-prefixed binary frames, for sidecars on the same host. Shares the
+ * verification core of {@code POST /auth/introspect} ({@link AuthenticationService#isValid}) without the
+ * HTTP, JSON and {@code APIResponse} overhead.
+ * <p>
+ * All integers are big-endian. Request frame: {@code u32 length} of the rest, {@code u32 requestId},
+ * {@code u16 count}, then {@code count} times {@code u16 tokenLength} and the token bytes. Response frame:
+ * {@code u32 length}, {@code u32 requestId}, {@code u16 count}, then one byte per token in request order
+ * ({@link #VALID}, {@link #INVALID} or {@link #MALFORMED}). Requests may be pipelined; responses come back in
+ * request order on the same connection. A frame over {@code max-frame-size} closes the connection.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+@ConditionalOnProperty(prefix = "introspection.binary", name = "enabled", havingValue = "true")
+public class BinaryIntrospectionServer implements SmartLifecycle {
+    static final byte INVALID = 0;
+    static final byte VALID = 1;
+    static final byte MALFORMED = 2;
+
+    // request id + count
+    private static final int HEADER_SIZE = 6;
+
+    private static final long MIN_ACCEPT_BACKOFF_MS = 10;
+    private static final long MAX_ACCEPT_BACKOFF_MS = 1000;
+
+    AuthenticationService authenticationService;
+
+    @NonFinal
+    volatile ServerSocket serverSocket;
+
+    @NonFinal
+    volatile ExecutorService connections;
+
+    @NonFinal
+    @Value("${introspection.binary.host:127.0.0.1}")
+    protected String HOST;
+
+    @NonFinal
+    @Value("${introspection.binary.port:9190}")
+    protected int PORT;
+
+    @NonFinal
+    @Value("${introspection.binary.max-frame-size:1048576}")
+    protected int MAX_FRAME_SIZE;
+
+    @Override
+    public void start() {
+        try {
+            serverSocket = new ServerSocket();
+            serverSocket.bind(new InetSocketAddress(HOST, PORT));
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot listen for binary introspection on " + HOST + ":" + PORT, e);
+        }
+
+        // one virtual thread per connection, blocking reads cost no platform thread
+        connections = Executors.newVirtualThreadPerTaskExecutor();
+        Thread.ofPlatform().name("introspection-acceptor").daemon().start(this::accept);
+        log.info("Binary introspection listening on {}:{}", HOST, getPort());
+    }
+
+    @Override
+    public void stop() {
+        try {
+            serverSocket.close();
+        } catch (IOException e) {
+            log.warn("Closing binary introspection listener failed", e);
+        }
+        connections.shutdownNow();
+        serverSocket = null;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return serverSocket != null;
+    }
+
+    // bound port, differs from the configured one when that is 0
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    private void accept() {
+        ServerSocket listener = serverSocket;
+        long backoff = 0;
+
+        while (!listener.isClosed()) {
+            try {
+                Socket socket = listener.accept();
+                socket.setTcpNoDelay(true);
+                connections.execute(() -> serve(socket));
+                backoff = 0;
+            } catch (IOException e) {
+                if (listener.isClosed()) {
+                    // closed by stop()
+                    return;
+                }
+
+                // e.g. out of file descriptors: retrying at once fails the same way
+                backoff = Math.min(MAX_ACCEPT_BACKOFF_MS, Math.max(MIN_ACCEPT_BACKOFF_MS, backoff * 2));
+                log.warn("Accepting binary introspection connection failed, retrying in {} ms: {}", backoff, e.getMessage());
+                try {
+                    Thread.sleep(backoff);
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private void serve(Socket socket) {
+        try (socket;
+             var in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+             var out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()))) {
+
+            while (true) {
+                int length = in.readInt();
+                if (length < HEADER_SIZE || length > MAX_FRAME_SIZE) {
+                    log.warn("Binary introspection frame of {} bytes from {}, closing", length, socket.getRemoteSocketAddress());
+                    return;
+                }
+
+                int requestId = in.readInt();
+                int count = in.readUnsignedShort();
+
+                // the frame is only written once complete: closing on an overrun flushes whole frames only
+                byte[] results = new byte[count];
+                int remaining = length - HEADER_SIZE;
+                for (int i = 0; i < count; i++) {
+                    int tokenLength = in.readUnsignedShort();
+                    remaining -= 2 + tokenLength;
+                    if (remaining < 0) {
+                        log.warn("Binary introspection frame overrun from {}, closing", socket.getRemoteSocketAddress());
+                        return;
+                    }
+
+                    byte[] token = new byte[tokenLength];
+                    in.readFully(token);
+                    results[i] = verify(new String(token, StandardCharsets.US_ASCII));
+                }
+                in.skipNBytes(remaining);
+
+                out.writeInt(HEADER_SIZE + count);
+                out.writeInt(requestId);
+                out.writeShort(count);
+                out.write(results);
+
+                // pipelined requests already buffered are answered in the same write
+                if (in.available() == 0) {
+                    out.flush();
+                }
+            }
+        } catch (EOFException e) {
+            // client closed the connection
+        } catch (IOException e) {
+            log.debug("Binary introspection connection {} failed", socket.getRemoteSocketAddress(), e);
+        }
+    }
+
+    private byte verify(String token) {
+        try {
+            return authenticationService.isValid(token) ? VALID : INVALID;
+        } catch (ParseException | JOSEException | RuntimeException e) {
+            return MALFORMED;
+        }
+    }
+}
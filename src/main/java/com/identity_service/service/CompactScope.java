@@ -0,0 +1,89 @@
+package com.identity_service.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+
+/**
+ * Immutable, versioned dictionary of authority names (roles and permissions). A set of authorities is
+ * encoded as a base64url bitset over the sorted names; the version is derived from the names, so every
+ * node building the dictionary from the same RBAC data arrives at the same version.
+ */
+public final class CompactScope {
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final String version;
+    private final String[] names;
+    private final Map<String, Integer> index;
+
+    private CompactScope(String version, String[] names) {
+        this.version = version;
+        this.names = names;
+        this.index = new HashMap<>(names.length * 2);
+        for (int i = 0; i < names.length; i++) {
+            index.put(names[i], i);
+        }
+    }
+
+    public static CompactScope of(Collection<String> authorities) {
+        String[] names = new TreeSet<>(authorities).toArray(String[]::new);
+        return new CompactScope(versionOf(names), names);
+    }
+
+    // restore a stored dictionary, names as returned by getJoinedNames()
+    public static CompactScope restore(String version, String joinedNames) {
+        String[] names = joinedNames.isEmpty() ? new String[0] : joinedNames.split(" ");
+        return new CompactScope(version, names);
+    }
+
+    public String getVersion() {
+        return version;
+    }
+
+    public String getJoinedNames() {
+        return String.join(" ", names);
+    }
+
+    public boolean containsAll(Collection<String> authorities) {
+        return index.keySet().containsAll(authorities);
+    }
+
+    // names missing from the dictionary are added to leftovers and must be carried in plain text
+    public String encode(Collection<String> authorities, Collection<String> leftovers) {
+        BitSet bits = new BitSet(names.length);
+
+        for (String authority : authorities) {
+            Integer position = index.get(authority);
+            if (Objects.isNull(position)) {
+                leftovers.add(authority);
+            } else {
+                bits.set(position);
+            }
+        }
+
+        return ENCODER.encodeToString(bits.toByteArray());
+    }
+
+    public List<String> decode(String encoded) {
+        BitSet bits = BitSet.valueOf(DECODER.decode(encoded));
+        List<String> authorities = new ArrayList<>(bits.cardinality());
+
+        for (int i = bits.nextSetBit(0); i >= 0 && i < names.length; i = bits.nextSetBit(i + 1)) {
+            authorities.add(names[i]);
+        }
+
+        return authorities;
+    }
+
+    private static String versionOf(String[] names) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest(String.join(" ", names).getBytes(StandardCharsets.UTF_8));
+            return ENCODER.encodeToString(Arrays.copyOf(digest, 9));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
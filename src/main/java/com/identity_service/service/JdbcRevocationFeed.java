@@ -0,0 +1,139 @@
+package com.identity_service.service;
+
+import com.identity_service.dto.event.RevocationEvent;
+import com.identity_service.entity.RevocationLog;
+import com.identity_service.repository.RevocationLogRepository;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Revocation feed on top of the {@code revocation_log} table. Published events are appended in the
+ * caller's transaction and delivered locally after commit; every node polls the log incrementally by
+ * sequence number, so remote nodes converge within {@code revocation.feed.poll-interval}.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+@ConditionalOnProperty(prefix = "revocation.feed", name = "transport", havingValue = "jdbc", matchIfMissing = true)
+public class JdbcRevocationFeed implements RevocationFeed, SmartLifecycle {
+    RevocationLogRepository revocationLogRepository;
+
+    List<Consumer<RevocationEvent>> listeners = new CopyOnWriteArrayList<>();
+
+    @NonFinal
+    volatile long lastSeq;
+
+    @NonFinal
+    @Value("${revocation.feed.batch-size:500}")
+    protected int BATCH_SIZE;
+
+    // identity values may commit out of order, so every poll re-reads this many sequences
+    @NonFinal
+    @Value("${revocation.feed.lookback:100}")
+    protected long LOOKBACK;
+
+    @NonFinal
+    volatile boolean running;
+
+    // starts before the listeners load their state, state before this point comes from the revocation tables
+    @Override
+    public void start() {
+        lastSeq = revocationLogRepository.findMaxSeq();
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return -1;
+    }
+
+    @Override
+    public void publish(RevocationEvent event) {
+        RevocationLog entry = revocationLogRepository.save(RevocationLog.builder()
+                .kind(event.getKind())
+                .subject(event.getSubject())
+                .expirationTime(event.getExpirationTime())
+                .epoch(event.getEpoch())
+                .version(event.getVersion())
+                .createdAt(new Date())
+                .build());
+        event.setSeq(entry.getSeq());
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    deliver(event);
+                }
+            });
+        } else {
+            deliver(event);
+        }
+    }
+
+    @Override
+    public void subscribe(Consumer<RevocationEvent> listener) {
+        listeners.add(listener);
+    }
+
+    @Scheduled(fixedDelayString = "${revocation.feed.poll-interval:1000}")
+    public void poll() {
+        long from = Math.max(0, lastSeq - LOOKBACK);
+        List<RevocationLog> batch;
+
+        do {
+            batch = revocationLogRepository.findBySeqGreaterThanOrderBySeqAsc(from, PageRequest.of(0, BATCH_SIZE));
+
+            for (RevocationLog entry : batch) {
+                deliver(RevocationEvent.builder()
+                        .kind(entry.getKind())
+                        .subject(entry.getSubject())
+                        .expirationTime(entry.getExpirationTime())
+                        .epoch(entry.getEpoch())
+                        .version(entry.getVersion())
+                        .seq(entry.getSeq())
+                        .build());
+                from = entry.getSeq();
+            }
+        } while (batch.size() == BATCH_SIZE);
+
+        lastSeq = Math.max(lastSeq, from);
+    }
+
+    private void deliver(RevocationEvent event) {
+        for (Consumer<RevocationEvent> listener : listeners) {
+            try {
+                listener.accept(event);
+            } catch (RuntimeException e) {
+                log.error("Revocation listener failed for {} {}", event.getKind(), event.getSubject(), e);
+            }
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.identity_service.service;
+
+import com.identity_service.entity.InvalidToken;
+import com.identity_service.repository.InvalidTokenRepository;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.util.Date;
+import java.util.List;
+
+// single invalid_token table, expired rows are deleted
+@Service
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+@ConditionalOnProperty(prefix = "revocation", name = "storage", havingValue = "jpa", matchIfMissing = true)
+public class JpaRevocationStore implements RevocationStore {
+    InvalidTokenRepository invalidTokenRepository;
+
+    @Override
+    public void save(String jti, Date expirationTime) {
+        invalidTokenRepository.save(InvalidToken.builder()
+                .id(jti)
+                .expirationTime(expirationTime)
+                .build());
+    }
+
+    @Override
+    public List<InvalidToken> findExpiringAfter(Date cutoff) {
+        return invalidTokenRepository.findByExpirationTimeAfter(cutoff);
+    }
+
+    @Override
+    public int purgeExpiredBefore(Date cutoff) {
+        return invalidTokenRepository.deleteExpiredBefore(cutoff);
+    }
+}
@@ -0,0 +1,147 @@
+package com.identity_service.service;
+
+import com.identity_service.enums.ErrorCode;
+import com.identity_service.exception.OverloadedException;
+import jakarta.annotation.PostConstruct;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Admission control for password verification. At most {@code max-concurrency} bcrypt checks run at once;
+ * further logins queue, and the moving average of their queueing delay decides about new arrivals: above
+ * {@code target-delay} they are shed immediately with 503 and Retry-After instead of joining a queue whose
+ * requests would time out anyway. Queued logins give up after {@code max-wait}.
+ * <p>
+ * Every running or queued login holds a servlet thread, and the delay average only moves once a wait ends: the
+ * queue is therefore also capped so that logins hold at most a quarter of {@code server.tomcat.threads.max},
+ * leaving the other threads to the rest of the API during a login surge.
+ */
+@Component
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class LoginAdmissionController {
+    // weight of the newest queueing delay sample in the moving average
+    private static final double ALPHA = 0.2;
+
+    // default queue length per concurrent check
+    private static final int QUEUE_PER_PERMIT = 4;
+
+    // nanoseconds, moving average of the time logins waited for a permit
+    AtomicLong queueDelay = new AtomicLong();
+    AtomicLong queued = new AtomicLong();
+    AtomicLong rejected = new AtomicLong();
+
+    @NonFinal
+    Semaphore permits;
+
+    @NonFinal
+    int maxQueue;
+
+    @NonFinal
+    @Value("${login.admission.enabled:true}")
+    protected boolean ENABLED;
+
+    // 0: one per available processor
+    @NonFinal
+    @Value("${login.admission.max-concurrency:0}")
+    protected int MAX_CONCURRENCY;
+
+    // 0: QUEUE_PER_PERMIT per concurrent check, capped by the servlet threads either way
+    @NonFinal
+    @Value("${login.admission.max-queue:0}")
+    protected int MAX_QUEUE;
+
+    @NonFinal
+    @Value("${server.tomcat.threads.max:200}")
+    protected int SERVLET_THREADS;
+
+    @NonFinal
+    @Value("${login.admission.target-delay:100}")
+    protected long TARGET_DELAY;
+
+    @NonFinal
+    @Value("${login.admission.max-wait:1000}")
+    protected long MAX_WAIT;
+
+    @PostConstruct
+    void init() {
+        int concurrency = MAX_CONCURRENCY > 0 ? MAX_CONCURRENCY : Runtime.getRuntime().availableProcessors();
+        permits = new Semaphore(concurrency);
+
+        int threadBound = Math.max(1, SERVLET_THREADS / 4 - concurrency);
+        maxQueue = Math.min(MAX_QUEUE > 0 ? MAX_QUEUE : QUEUE_PER_PERMIT * concurrency, threadBound);
+    }
+
+    // blocks for a permit or throws OverloadedException, a successful call must be paired with release()
+    public void acquire() {
+        if (!ENABLED) {
+            return;
+        }
+
+        if (permits.tryAcquire()) {
+            record(0);
+            return;
+        }
+
+        if (queueDelay.get() > TimeUnit.MILLISECONDS.toNanos(TARGET_DELAY)) {
+            throw shed();
+        }
+
+        // the place is reserved before the check, so a burst cannot overshoot the bound
+        if (queued.incrementAndGet() > maxQueue) {
+            queued.decrementAndGet();
+            throw shed();
+        }
+
+        long start = System.nanoTime();
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(MAX_WAIT, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw shed();
+        } finally {
+            queued.decrementAndGet();
+        }
+
+        // a timed out wait is a delay sample too, so the average climbs while the queue is stuck
+        record(System.nanoTime() - start);
+        if (!acquired) {
+            throw shed();
+        }
+    }
+
+    public void release() {
+        if (ENABLED) {
+            permits.release();
+        }
+    }
+
+    public long getRejected() {
+        return rejected.get();
+    }
+
+    public int getMaxQueue() {
+        return maxQueue;
+    }
+
+    private void record(long delay) {
+        queueDelay.getAndUpdate(average -> average + (long) ((delay - average) * ALPHA));
+    }
+
+    private OverloadedException shed() {
+        rejected.incrementAndGet();
+
+        // roughly the time the current queue needs to drain, at least a second
+        long retryAfter = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(queueDelay.get() * 2));
+        return new OverloadedException(ErrorCode.LOGIN_OVERLOADED, retryAfter);
+    }
+}
@@ -0,0 +1,168 @@
+package com.identity_service.service;
+
+import com.identity_service.entity.InvalidToken;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Revocations bucketed by expiration time into one table per {@code revocation.partition-window}
+ * ({@code invalid_token_<bucket>}). Reads only touch buckets that can still hold live revocations and a
+ * bucket whose whole window is past the cutoff is retired with a single {@code DROP TABLE}, instead of
+ * deleting its rows one by one.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+@ConditionalOnProperty(prefix = "revocation", name = "storage", havingValue = "partitioned")
+public class PartitionedRevocationStore implements RevocationStore {
+    static final String TABLE_PREFIX = "invalid_token_";
+    private static final Pattern TABLE_NAME = Pattern.compile(TABLE_PREFIX + "(\\d+)", Pattern.CASE_INSENSITIVE);
+
+    JdbcTemplate jdbcTemplate;
+    PlatformTransactionManager transactionManager;
+
+    // buckets known to have a table
+    Set<Long> buckets = ConcurrentHashMap.newKeySet();
+
+    // seconds
+    @NonFinal
+    @Value("${revocation.partition-window:86400}")
+    protected long PARTITION_WINDOW;
+
+    @Override
+    public void save(String jti, Date expirationTime) {
+        String table = ensureTable(bucketOf(expirationTime.getTime()));
+
+        try {
+            jdbcTemplate.update("insert into " + table + " (id, expiration_time) values (?, ?)",
+                    jti, new Timestamp(expirationTime.getTime()));
+        } catch (DuplicateKeyException e) {
+            // revoked twice, e.g. concurrent logout and refresh
+        }
+    }
+
+    @Override
+    public List<InvalidToken> findExpiringAfter(Date cutoff) {
+        List<InvalidToken> tokens = new ArrayList<>();
+        long firstLive = bucketOf(cutoff.getTime());
+
+        for (long bucket : existingBuckets()) {
+            if (bucket < firstLive) {
+                continue;
+            }
+
+            jdbcTemplate.query("select id, expiration_time from " + tableOf(bucket) + " where expiration_time > ?",
+                    (ResultSet rs) -> {
+                        tokens.add(InvalidToken.builder()
+                                .id(rs.getString(1))
+                                .expirationTime(new Date(rs.getTimestamp(2).getTime()))
+                                .build());
+                    },
+                    new Timestamp(cutoff.getTime()));
+        }
+
+        return tokens;
+    }
+
+    // drops every bucket ending before the cutoff; rows of the bucket holding the cutoff stay until it ends
+    @Override
+    public int purgeExpiredBefore(Date cutoff) {
+        long firstLive = bucketOf(cutoff.getTime());
+        int dropped = 0;
+
+        // revoked tokens expire within a token lifetime, so the current and next bucket cover the
+        // inserts until the next purge and the DDL stays off the request path
+        long current = bucketOf(System.currentTimeMillis());
+        ensureTable(current);
+        ensureTable(current + 1);
+
+        for (long bucket : existingBuckets()) {
+            if (bucket >= firstLive) {
+                break;
+            }
+
+            runDdl("drop table if exists " + tableOf(bucket));
+            buckets.remove(bucket);
+            dropped++;
+        }
+
+        if (dropped > 0) {
+            log.info("Dropped {} expired revocation buckets", dropped);
+        }
+        return dropped;
+    }
+
+    long bucketOf(long epochMillis) {
+        return Math.floorDiv(epochMillis, PARTITION_WINDOW * 1000);
+    }
+
+    private String tableOf(long bucket) {
+        return TABLE_PREFIX + bucket;
+    }
+
+    private String ensureTable(long bucket) {
+        String table = tableOf(bucket);
+
+        if (!buckets.contains(bucket)) {
+            runDdl("create table if not exists " + table
+                    + " (id varchar(255) not null primary key, expiration_time datetime(6) not null)");
+            buckets.add(bucket);
+        }
+
+        return table;
+    }
+
+    // MySQL commits implicitly around DDL, keep it out of the caller's transaction
+    private void runDdl(String sql) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.execute(sql));
+    }
+
+    // ascending; read from the catalog so buckets created by other nodes are seen
+    private Set<Long> existingBuckets() {
+        Set<Long> found = jdbcTemplate.execute((ConnectionCallback<Set<Long>>) connection -> {
+            Set<Long> result = new TreeSet<>();
+
+            try (ResultSet tables = connection.getMetaData()
+                    .getTables(connection.getCatalog(), connection.getSchema(), "%", new String[]{"TABLE"})) {
+                while (tables.next()) {
+                    Matcher matcher = TABLE_NAME.matcher(tables.getString("TABLE_NAME"));
+                    if (matcher.matches()) {
+                        result.add(Long.parseLong(matcher.group(1)));
+                    }
+                }
+            }
+
+            return result;
+        });
+
+        buckets.retainAll(found);
+        buckets.addAll(found);
+        return found;
+    }
+}
@@ -0,0 +1,111 @@
+package com.identity_service.service;
+
+import com.identity_service.entity.PermissionDictionary;
+import com.identity_service.repository.PermissionDictionaryRepository;
+import com.identity_service.repository.PermissionRepository;
+import com.identity_service.repository.RoleRepository;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Keeps the current {@link CompactScope} dictionary in sync with the roles and permissions, and resolves
+ * older versions referenced by tokens that are still in circulation.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class PermissionDictionaryService {
+    private static final int MAX_CACHED_VERSIONS = 64;
+
+    RoleRepository roleRepository;
+    PermissionRepository permissionRepository;
+    PermissionDictionaryRepository permissionDictionaryRepository;
+
+    Map<String, CompactScope> versions = new ConcurrentHashMap<>();
+
+    // not synchronized: a virtual thread blocked on JDBC inside a monitor pins its carrier
+    Lock refreshLock = new ReentrantLock();
+
+    @NonFinal
+    volatile CompactScope current;
+
+    // dictionary able to encode all the given authorities, rebuilt if RBAC data changed on another node
+    public CompactScope dictionaryFor(Collection<String> authorities) {
+        CompactScope dictionary = current;
+
+        if (Objects.isNull(dictionary) || !dictionary.containsAll(authorities)) {
+            dictionary = refresh();
+        }
+
+        return dictionary;
+    }
+
+    // called after every role/permission change
+    public CompactScope refresh() {
+        refreshLock.lock();
+        try {
+            return doRefresh();
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    private CompactScope doRefresh() {
+        List<String> names = new ArrayList<>();
+        roleRepository.findAll().forEach(role -> names.add("ROLE_" + role.getName()));
+        permissionRepository.findAll().forEach(permission -> names.add(permission.getName()));
+
+        CompactScope dictionary = CompactScope.of(names);
+
+        if (!permissionDictionaryRepository.existsById(dictionary.getVersion())) {
+            try {
+                permissionDictionaryRepository.save(PermissionDictionary.builder()
+                        .version(dictionary.getVersion())
+                        .names(dictionary.getJoinedNames())
+                        .createdAt(new Date())
+                        .build());
+            } catch (DataIntegrityViolationException e) {
+                log.debug("Permission dictionary {} stored concurrently", dictionary.getVersion());
+            }
+        }
+
+        cache(dictionary);
+        current = dictionary;
+        return dictionary;
+    }
+
+    public Optional<CompactScope> find(String version) {
+        CompactScope dictionary = versions.get(version);
+        if (Objects.nonNull(dictionary)) {
+            return Optional.of(dictionary);
+        }
+
+        return permissionDictionaryRepository.findById(version)
+                .map(entity -> cache(CompactScope.restore(entity.getVersion(), entity.getNames())));
+    }
+
+    private CompactScope cache(CompactScope dictionary) {
+        if (versions.size() >= MAX_CACHED_VERSIONS) {
+            versions.clear();
+        }
+        versions.put(dictionary.getVersion(), dictionary);
+        return dictionary;
+    }
+}
@@ -3,12 +3,14 @@ package com.identity_service.service;
 import com.identity_service.dto.request.PermissionRequest;
 import com.identity_service.dto.response.PermissionResponse;
 import com.identity_service.entity.Permission;
+import com.identity_service.enums.AuditAction;
 import com.identity_service.mapper.PermissionMapper;
 import com.identity_service.repository.PermissionRepository;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
@@ -18,15 +20,27 @@ import java.util.List;
 public class PermissionService {
     PermissionRepository permissionRepository;
     PermissionMapper permissionMapper;
+    PermissionDictionaryService permissionDictionaryService;
+    ResourceVersionService resourceVersionService;
+    AuditService auditService;
 
     public PermissionResponse create(PermissionRequest request) {
         Permission permission = permissionMapper.toPermission(request);
 
         permission = permissionRepository.save(permission);
+        permissionDictionaryService.refresh();
+        resourceVersionService.rbacChanged();
+        auditService.record(AuditAction.PERMISSION_CREATED, permission.getName());
 
         return permissionMapper.toPermissionResponse(permission);
     }
 
+    // read before the data, so a concurrent change can only make the ETag older than the body
+    public String getETag() {
+        return resourceVersionService.getRbacETag();
+    }
+
+    @Transactional(readOnly = true)
     public List<PermissionResponse> getAll() {
         var permissions = permissionRepository.findAll();
         return permissions.stream().map(permissionMapper::toPermissionResponse).toList();
@@ -34,5 +48,8 @@ public class PermissionService {
 
     public void delete(String permission) {
         permissionRepository.deleteById(permission);
+        permissionDictionaryService.refresh();
+        resourceVersionService.rbacChanged();
+        auditService.record(AuditAction.PERMISSION_DELETED, permission);
     }
 }
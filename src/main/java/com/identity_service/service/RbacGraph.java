@@ -0,0 +1,127 @@
+package com.identity_service.service;
+
+import com.identity_service.entity.Role;
+import org.springframework.util.CollectionUtils;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Immutable snapshot of the role -> permission graph. Every authority ({@code ROLE_<name>} and permission
+ * names) gets a bit position and every role the bitset of the authorities it grants, inherited roles
+ * included, so a decision is a single bit test on the OR of the user's role bitsets and the hierarchy is
+ * only walked when the snapshot is built.
+ */
+public final class RbacGraph {
+    static final RbacGraph EMPTY = new RbacGraph(0, Map.of(), List.of(), Map.of());
+
+    private final long version;
+    private final Map<String, Integer> index;
+    private final List<String> names;
+    private final Map<String, BitSet> roles;
+
+    private RbacGraph(long version, Map<String, Integer> index, List<String> names, Map<String, BitSet> roles) {
+        this.version = version;
+        this.index = index;
+        this.names = names;
+        this.roles = roles;
+    }
+
+    // inherits: role name -> names of the roles it directly inherits
+    public static RbacGraph of(long version, Collection<Role> roles, Map<String, ? extends Collection<String>> inherits) {
+        Map<String, Integer> index = new HashMap<>();
+        List<String> names = new ArrayList<>();
+        Map<String, BitSet> direct = new HashMap<>(roles.size() * 2);
+
+        for (Role role : roles) {
+            BitSet bits = new BitSet();
+            bits.set(positionOf(index, names, "ROLE_" + role.getName()));
+
+            if (!CollectionUtils.isEmpty(role.getPermissions())) {
+                role.getPermissions().forEach(permission -> bits.set(positionOf(index, names, permission.getName())));
+            }
+
+            direct.put(role.getName(), bits);
+        }
+
+        // transitive closure, cycles end at roles already visited
+        Map<String, BitSet> closure = new HashMap<>(direct.size() * 2);
+        for (Map.Entry<String, BitSet> entry : direct.entrySet()) {
+            BitSet bits = (BitSet) entry.getValue().clone();
+            Set<String> visited = new HashSet<>();
+            Deque<String> pending = new ArrayDeque<>();
+            visited.add(entry.getKey());
+            pending.push(entry.getKey());
+
+            while (!pending.isEmpty()) {
+                for (String parent : inherits.getOrDefault(pending.pop(), List.of())) {
+                    BitSet parentBits = direct.get(parent);
+                    if (Objects.nonNull(parentBits) && visited.add(parent)) {
+                        bits.or(parentBits);
+                        pending.push(parent);
+                    }
+                }
+            }
+
+            closure.put(entry.getKey(), bits);
+        }
+
+        return new RbacGraph(version, index, List.copyOf(names), closure);
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public boolean containsRole(String roleName) {
+        return roles.containsKey(roleName);
+    }
+
+    // authorities granted by the given roles, computed once per subject
+    public BitSet grantsOf(Collection<String> roleNames) {
+        BitSet bits = new BitSet(index.size());
+
+        for (String roleName : roleNames) {
+            BitSet grants = roles.get(roleName);
+            if (Objects.nonNull(grants)) {
+                bits.or(grants);
+            }
+        }
+
+        return bits;
+    }
+
+    // effective authority names of the given roles, as carried in the token scope
+    public Set<String> authoritiesOf(Collection<String> roleNames) {
+        BitSet grants = grantsOf(roleNames);
+        Set<String> authorities = new LinkedHashSet<>(grants.cardinality() * 2);
+
+        for (int i = grants.nextSetBit(0); i >= 0; i = grants.nextSetBit(i + 1)) {
+            authorities.add(names.get(i));
+        }
+
+        return authorities;
+    }
+
+    public boolean isGranted(BitSet grants, String authority) {
+        Integer position = index.get(authority);
+        return Objects.nonNull(position) && grants.get(position);
+    }
+
+    private static int positionOf(Map<String, Integer> index, List<String> names, String authority) {
+        return index.computeIfAbsent(authority, name -> {
+            names.add(name);
+            return names.size() - 1;
+        });
+    }
+}
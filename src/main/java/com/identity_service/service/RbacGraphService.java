@@ -0,0 +1,203 @@
+package com.identity_service.service;
+
+import com.identity_service.dto.event.RevocationEvent;
+import com.identity_service.dto.request.AuthorizationCheck;
+import com.identity_service.dto.request.AuthorizationRequest;
+import com.identity_service.dto.response.AuthorizationResponse;
+import com.identity_service.enums.RevocationKind;
+import com.identity_service.repository.RevocationLogRepository;
+import com.identity_service.repository.RoleRepository;
+import com.identity_service.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Answers "may user X do P" from an in-memory {@link RbacGraph}. The graph is rebuilt on RBAC events from
+ * the revocation feed (local writes are delivered right after commit), the role names of each user are
+ * cached and dropped on USER events.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class RbacGraphService implements SmartLifecycle {
+    RoleRepository roleRepository;
+    UserRepository userRepository;
+    RevocationLogRepository revocationLogRepository;
+    RevocationFeed revocationFeed;
+
+    // lowercased username -> role names (usernames are case insensitive)
+    Map<String, List<String>> userRoles = new ConcurrentHashMap<>();
+
+    // bumped on every USER event, loads that raced with one are not cached
+    AtomicLong userChanges = new AtomicLong();
+
+    // rebuilds query the database, a monitor would pin virtual threads
+    Lock rebuildLock = new ReentrantLock();
+
+    @NonFinal
+    volatile RbacGraph graph = RbacGraph.EMPTY;
+
+    @NonFinal
+    volatile boolean running;
+
+    @NonFinal
+    @Value("${rbac.user-cache-size:100000}")
+    protected int USER_CACHE_SIZE;
+
+    @PostConstruct
+    void init() {
+        revocationFeed.subscribe(this::apply);
+    }
+
+    @Override
+    public void start() {
+        rebuild(revocationLogRepository.findMaxSeqByKind(RevocationKind.RBAC));
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return 0;
+    }
+
+    public RbacGraph getGraph() {
+        return graph;
+    }
+
+    // one query for the subjects not cached yet, then one bit test per check
+    public AuthorizationResponse authorize(AuthorizationRequest request) {
+        List<AuthorizationCheck> checks = Objects.isNull(request.getChecks()) ? List.of() : request.getChecks();
+        RbacGraph current = graph;
+
+        Map<String, BitSet> grants = new HashMap<>();
+        for (Map.Entry<String, List<String>> entry : rolesOf(checks).entrySet()) {
+            grants.put(entry.getKey(), current.grantsOf(entry.getValue()));
+        }
+
+        List<Boolean> decisions = new ArrayList<>(checks.size());
+        for (AuthorizationCheck check : checks) {
+            BitSet subjectGrants = Objects.isNull(check.getSubject()) ? null : grants.get(key(check.getSubject()));
+            decisions.add(Objects.nonNull(subjectGrants) && current.isGranted(subjectGrants, check.getPermission()));
+        }
+
+        return AuthorizationResponse.builder()
+                .decisions(decisions)
+                .rbacVersion(current.getVersion())
+                .build();
+    }
+
+    // role names of every known subject of the batch, unknown users are left out
+    private Map<String, List<String>> rolesOf(List<AuthorizationCheck> checks) {
+        Map<String, List<String>> roles = new HashMap<>();
+        Set<String> missing = new HashSet<>();
+
+        for (AuthorizationCheck check : checks) {
+            if (Objects.isNull(check.getSubject())) {
+                continue;
+            }
+
+            String key = key(check.getSubject());
+            List<String> cached = userRoles.get(key);
+            if (Objects.nonNull(cached)) {
+                roles.put(key, cached);
+            } else {
+                missing.add(key);
+            }
+        }
+
+        if (missing.isEmpty()) {
+            return roles;
+        }
+
+        long changes = userChanges.get();
+        Map<String, List<String>> loaded = new HashMap<>();
+        for (Object[] row : userRepository.findRoleNamesByUsernameIn(missing)) {
+            List<String> names = loaded.computeIfAbsent(key((String) row[0]), username -> new ArrayList<>());
+            if (Objects.nonNull(row[1])) {
+                names.add((String) row[1]);
+            }
+        }
+
+        // crude bound: the cache is rebuilt on demand from the users table
+        if (userRoles.size() + loaded.size() > USER_CACHE_SIZE) {
+            userRoles.clear();
+        }
+        boolean cacheable = changes == userChanges.get();
+        loaded.forEach((username, names) -> {
+            List<String> immutable = List.copyOf(names);
+            if (cacheable) {
+                userRoles.put(username, immutable);
+            }
+            roles.put(username, immutable);
+        });
+
+        return roles;
+    }
+
+    private void rebuild(long version) {
+        rebuildLock.lock();
+        try {
+            if (version < graph.getVersion()) {
+                return;
+            }
+
+            Map<String, List<String>> inherits = new HashMap<>();
+            for (Object[] edge : roleRepository.findInheritance()) {
+                inherits.computeIfAbsent((String) edge[0], name -> new ArrayList<>()).add((String) edge[1]);
+            }
+
+            graph = RbacGraph.of(version, roleRepository.findAllWithPermissions(), inherits);
+            log.debug("RBAC graph rebuilt at version {}", version);
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    private void apply(RevocationEvent event) {
+        if (event.getKind() == RevocationKind.RBAC && event.getSeq() != null) {
+            // the feed delivers local events twice, rebuild once per version
+            if (event.getSeq() > graph.getVersion()) {
+                rebuild(event.getSeq());
+            }
+        } else if (event.getKind() == RevocationKind.USER && event.getSubject() != null) {
+            userChanges.incrementAndGet();
+            userRoles.remove(key(event.getSubject()));
+        }
+    }
+
+    private static String key(String username) {
+        return username.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,136 @@
+package com.identity_service.service;
+
+import com.identity_service.dto.event.RevocationEvent;
+import com.identity_service.enums.RevocationKind;
+import com.identity_service.repository.RevocationLogRepository;
+import com.identity_service.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Version counters behind the ETags of the role/permission listings and myInfo, answerable without a query.
+ * The RBAC version is the feed sequence of the latest RBAC change, so every node derives the same ETag;
+ * user versions are the entity {@code @Version}, cached per username and kept current by USER events.
+ */
+@Service
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class ResourceVersionService implements SmartLifecycle {
+    // user that does not exist (yet), not cached
+    static final long UNKNOWN_USER_VERSION = -1L;
+
+    UserRepository userRepository;
+    RevocationLogRepository revocationLogRepository;
+    RevocationFeed revocationFeed;
+
+    AtomicLong rbacVersion = new AtomicLong();
+
+    // username -> version, versions only grow so loads and events are merged with max
+    Map<String, Long> userVersions = new ConcurrentHashMap<>();
+
+    @NonFinal
+    volatile boolean running;
+
+    @NonFinal
+    @Value("${etag.user-cache-size:100000}")
+    protected int USER_CACHE_SIZE;
+
+    @PostConstruct
+    void init() {
+        revocationFeed.subscribe(this::apply);
+    }
+
+    @Override
+    public void start() {
+        rbacVersion.accumulateAndGet(revocationLogRepository.findMaxSeqByKind(RevocationKind.RBAC), Math::max);
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return 0;
+    }
+
+    public String getRbacETag() {
+        return "\"rbac-" + rbacVersion.get() + "\"";
+    }
+
+    // myInfo lists the user's roles and permissions, so it depends on both versions
+    public String getUserETag(String username) {
+        return "\"user-" + getUserVersion(username) + "-rbac-" + rbacVersion.get() + "\"";
+    }
+
+    // called after roles or permissions were changed
+    public void rbacChanged() {
+        revocationFeed.publish(RevocationEvent.builder()
+                .kind(RevocationKind.RBAC)
+                .build());
+    }
+
+    // called after the user was saved, version == null when the user was deleted
+    public void userChanged(String username, Long version) {
+        if (version == null) {
+            userVersions.remove(username);
+        } else {
+            userVersions.merge(username, version, Math::max);
+        }
+
+        revocationFeed.publish(RevocationEvent.builder()
+                .kind(RevocationKind.USER)
+                .subject(username)
+                .version(version)
+                .build());
+    }
+
+    private long getUserVersion(String username) {
+        Long version = userVersions.get(username);
+        if (version != null) {
+            return version;
+        }
+
+        version = userRepository.findVersionByUsername(username).orElse(null);
+        if (version == null) {
+            return UNKNOWN_USER_VERSION;
+        }
+
+        // crude bound: the cache is rebuilt on demand from the users table
+        if (userVersions.size() >= USER_CACHE_SIZE) {
+            userVersions.clear();
+        }
+
+        return userVersions.merge(username, version, Math::max);
+    }
+
+    private void apply(RevocationEvent event) {
+        if (event.getKind() == RevocationKind.RBAC && event.getSeq() != null) {
+            rbacVersion.accumulateAndGet(event.getSeq(), Math::max);
+        } else if (event.getKind() == RevocationKind.USER) {
+            if (event.getVersion() == null) {
+                userVersions.remove(event.getSubject());
+            } else {
+                // only tracked users, the rest is loaded on demand
+                userVersions.computeIfPresent(event.getSubject(), (username, version) -> Math.max(version, event.getVersion()));
+            }
+        }
+    }
+}
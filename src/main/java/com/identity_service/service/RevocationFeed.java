@@ -0,0 +1,15 @@
+package com.identity_service.service;
+
+import com.identity_service.dto.event.RevocationEvent;
+
+import java.util.function.Consumer;
+
+/**
+ * Transport that propagates revocations to every node, so node-local revocation state converges.
+ * Delivery is at-least-once and listeners must be idempotent; a node also receives its own events.
+ */
+public interface RevocationFeed {
+    void publish(RevocationEvent event);
+
+    void subscribe(Consumer<RevocationEvent> listener);
+}
@@ -0,0 +1,122 @@
+package com.identity_service.service;
+
+import com.identity_service.dto.event.RevocationEvent;
+import com.identity_service.enums.RevocationKind;
+import com.identity_service.repository.RevocationLogRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Node-local view of revoked tokens, so token verification does not hit the database.
+ * Loaded from the {@link RevocationStore} at startup and kept current through the {@link RevocationFeed}.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class RevocationService implements SmartLifecycle {
+    RevocationStore revocationStore;
+    RevocationLogRepository revocationLogRepository;
+    RevocationFeed revocationFeed;
+
+    // jti -> expiration time in epoch millis
+    Map<String, Long> revokedTokens = new ConcurrentHashMap<>();
+
+    @NonFinal
+    @Value("${jwt.valid-duration}")
+    protected long VALID_DURATION;
+
+    @NonFinal
+    @Value("${jwt.refreshable-duration}")
+    protected long REFRESHABLE_DURATION;
+
+    @NonFinal
+    @Value("${revocation.feed.retention:86400}")
+    protected long FEED_RETENTION;
+
+    @NonFinal
+    volatile boolean running;
+
+    @PostConstruct
+    void init() {
+        revocationFeed.subscribe(this::apply);
+    }
+
+    // loaded on lifecycle start rather than construction, so a context refresh needs no database
+    // (AppCDS training run) while still completing before the web server accepts requests
+    @Override
+    public void start() {
+        revocationStore.findExpiringAfter(retentionCutoff())
+                .forEach(token -> revokedTokens.put(token.getId(), token.getExpirationTime().getTime()));
+        log.info("Loaded {} revoked tokens", revokedTokens.size());
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return 0;
+    }
+
+    public boolean isRevoked(String jti) {
+        return revokedTokens.containsKey(jti);
+    }
+
+    @Transactional
+    public void revoke(String jti, Date expirationTime) {
+        revocationStore.save(jti, expirationTime);
+
+        revocationFeed.publish(RevocationEvent.builder()
+                .kind(RevocationKind.TOKEN)
+                .subject(jti)
+                .expirationTime(expirationTime)
+                .build());
+    }
+
+    @Scheduled(fixedDelayString = "${revocation.purge-interval:600000}")
+    public void purge() {
+        Date cutoff = retentionCutoff();
+        revokedTokens.values().removeIf(expirationTime -> expirationTime < cutoff.getTime());
+
+        int tokens = revocationStore.purgeExpiredBefore(cutoff);
+        int logEntries = revocationLogRepository.deleteCreatedBefore(
+                Date.from(Instant.now().minus(FEED_RETENTION, ChronoUnit.SECONDS)));
+        log.info("Purged {} revoked token rows/buckets and {} revocation log entries", tokens, logEntries);
+    }
+
+    private void apply(RevocationEvent event) {
+        if (event.getKind() == RevocationKind.TOKEN) {
+            revokedTokens.put(event.getSubject(), event.getExpirationTime().getTime());
+        }
+    }
+
+    // a revoked token matters until it can no longer be refreshed, i.e. up to
+    // (refreshable - valid) duration past its expiration time
+    private Date retentionCutoff() {
+        return Date.from(Instant.now().minus(REFRESHABLE_DURATION - VALID_DURATION, ChronoUnit.SECONDS));
+    }
+}
@@ -0,0 +1,17 @@
+package com.identity_service.service;
+
+import com.identity_service.entity.InvalidToken;
+
+import java.util.Date;
+import java.util.List;
+
+// durable storage of revoked token ids, selected with revocation.storage
+public interface RevocationStore {
+    void save(String jti, Date expirationTime);
+
+    // revocations expiring after the cutoff
+    List<InvalidToken> findExpiringAfter(Date cutoff);
+
+    // forgets revocations that expired before the cutoff, returns how many rows or buckets went away
+    int purgeExpiredBefore(Date cutoff);
+}
@@ -2,6 +2,7 @@ package com.identity_service.service;
 
 import com.identity_service.dto.request.RoleRequest;
 import com.identity_service.dto.response.RoleResponse;
+import com.identity_service.enums.AuditAction;
 import com.identity_service.mapper.RoleMapper;
 import com.identity_service.repository.PermissionRepository;
 import com.identity_service.repository.RoleRepository;
@@ -9,6 +10,8 @@ import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.CollectionUtils;
 
 import java.util.HashSet;
 import java.util.List;
@@ -20,6 +23,9 @@ public class RoleService {
     RoleRepository roleRepository;
     PermissionRepository permissionRepository;
     RoleMapper roleMapper;
+    PermissionDictionaryService permissionDictionaryService;
+    ResourceVersionService resourceVersionService;
+    AuditService auditService;
 
     public RoleResponse create(RoleRequest request) {
         var role = roleMapper.toRole(request);
@@ -27,16 +33,34 @@ public class RoleService {
         var permissions = permissionRepository.findAllById(request.getPermissions());
         role.setPermissions(new HashSet<>(permissions));
 
+        if (!CollectionUtils.isEmpty(request.getInherits())) {
+            role.setInherits(new HashSet<>(roleRepository.findAllById(request.getInherits())));
+        }
+
         role = roleRepository.save(role);
+        permissionDictionaryService.refresh();
+        resourceVersionService.rbacChanged();
+        auditService.record(AuditAction.ROLE_CREATED, role.getName());
         return roleMapper.toRoleResponse(role);
     }
 
+    // read before the data, so a concurrent change can only make the ETag older than the body
+    public String getETag() {
+        return resourceVersionService.getRbacETag();
+    }
+
+    @Transactional(readOnly = true)
     public List<RoleResponse> getAll() {
         var roles = roleRepository.findAll();
         return roles.stream().map(roleMapper::toRoleResponse).toList();
     }
 
+    @Transactional
     public void delete(String role) {
+        roleRepository.deleteInheritanceOf(role);
         roleRepository.deleteById(role);
+        permissionDictionaryService.refresh();
+        resourceVersionService.rbacChanged();
+        auditService.record(AuditAction.ROLE_DELETED, role);
     }
 }
@@ -0,0 +1,112 @@
+package com.identity_service.service;
+
+import com.identity_service.dto.event.RevocationEvent;
+import com.identity_service.enums.RevocationKind;
+import com.identity_service.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-user token epoch. Every token carries the epoch of its user at issue time and is only valid while
+ * it still matches, so revoking all sessions of a user is a single counter bump instead of one
+ * {@code InvalidToken} row per outstanding token. Changes reach the other nodes through the {@link RevocationFeed}.
+ */
+@Service
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class TokenEpochService {
+    // cached for users that no longer exist, never matches a token
+    static final long UNKNOWN_USER_EPOCH = -1L;
+
+    UserRepository userRepository;
+    RevocationFeed revocationFeed;
+
+    // username -> epoch, epochs only grow so concurrent loads are merged with max
+    Map<String, Long> epochs = new ConcurrentHashMap<>();
+
+    @NonFinal
+    @Value("${jwt.epoch-cache-size:100000}")
+    protected int EPOCH_CACHE_SIZE;
+
+    @PostConstruct
+    void init() {
+        revocationFeed.subscribe(this::apply);
+    }
+
+    public boolean isCurrent(String username, long tokenEpoch) {
+        Long epoch = epochs.get(username);
+
+        if (epoch == null) {
+            epoch = load(username);
+        }
+
+        return epoch == tokenEpoch;
+    }
+
+    @Transactional
+    public void revokeAll(String username) {
+        userRepository.incrementTokenEpoch(username);
+        publish(username, load(username));
+    }
+
+    // called after the epoch was changed through the entity, e.g. on password change
+    public void update(String username, long epoch) {
+        publish(username, epoch);
+        epochs.merge(username, epoch, Math::max);
+    }
+
+    // called when the user is deleted
+    public void evict(String username) {
+        epochs.remove(username);
+        publish(username, null);
+    }
+
+    // local only, for users that are never persisted (the warmup's): nothing is published
+    void prime(String username, long epoch) {
+        epochs.put(username, epoch);
+    }
+
+    void forget(String username) {
+        epochs.remove(username);
+    }
+
+    private void publish(String username, Long epoch) {
+        revocationFeed.publish(RevocationEvent.builder()
+                .kind(RevocationKind.USER_EPOCH)
+                .subject(username)
+                .epoch(epoch)
+                .build());
+    }
+
+    private void apply(RevocationEvent event) {
+        if (event.getKind() != RevocationKind.USER_EPOCH) {
+            return;
+        }
+
+        if (event.getEpoch() == null) {
+            epochs.remove(event.getSubject());
+        } else {
+            epochs.merge(event.getSubject(), event.getEpoch(), Math::max);
+        }
+    }
+
+    private long load(String username) {
+        long epoch = userRepository.findTokenEpochByUsername(username).orElse(UNKNOWN_USER_EPOCH);
+
+        // crude bound: the cache is rebuilt on demand from the users table
+        if (epochs.size() >= EPOCH_CACHE_SIZE) {
+            epochs.clear();
+        }
+
+        return epochs.merge(username, epoch, Math::max);
+    }
+}
@@ -1,9 +1,11 @@
 package com.identity_service.service;
 
 import com.identity_service.dto.request.UserCreationRequest;
+import com.identity_service.dto.request.UserPatchRequest;
 import com.identity_service.dto.request.UserUpdateRequest;
 import com.identity_service.dto.response.UserResponse;
 import com.identity_service.entity.User;
+import com.identity_service.enums.AuditAction;
 import com.identity_service.enums.ErrorCode;
 import com.identity_service.enums.Role;
 import com.identity_service.exception.AppException;
@@ -14,14 +16,18 @@ import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
 import org.springframework.dao.DataIntegrityViolationException;
-import org.springframework.security.access.prepost.PostAuthorize;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.CollectionUtils;
+import org.springframework.util.StringUtils;
 
 import java.util.HashSet;
 import java.util.List;
+import java.util.Objects;
 
 @Service
 @RequiredArgsConstructor
@@ -32,8 +38,19 @@ public class UserService {
     RoleRepository roleRepository;
     UserMapper userMapper;
     PasswordEncoder passwordEncoder;
+    TokenEpochService tokenEpochService;
+    ResourceVersionService resourceVersionService;
+    AuditService auditService;
+    UserSessionService userSessionService;
+    UsernameIndexService usernameIndexService;
 
     public UserResponse createUser(UserCreationRequest request) {
+        // a name the filter has seen is checked before paying for bcrypt, the unique key still decides races
+        if (usernameIndexService.mightExist(request.getUsername())
+                && userRepository.existsByUsername(request.getUsername())) {
+            throw new AppException(ErrorCode.USER_EXISTS);
+        }
+
         User user = userMapper.toUser(request);
 
         user.setPassword(passwordEncoder.encode(request.getPassword()));
@@ -46,6 +63,9 @@ public class UserService {
         } catch(DataIntegrityViolationException exception) {
             throw new AppException(ErrorCode.USER_EXISTS);
         }
+        // USER event: adds the name to the username filter of every node
+        resourceVersionService.userChanged(user.getUsername(), user.getVersion());
+        auditService.record(AuditAction.USER_CREATED, user.getUsername());
 
         return userMapper.toUserResponse(user);
     }
@@ -53,33 +73,124 @@ public class UserService {
 
     // @PreAuthorize - check before call method
     @PreAuthorize("hasRole('ADMIN')")
+    @Transactional(readOnly = true)
     public List<UserResponse> getUsers() {
         return userRepository.findAll().stream().map(userMapper::toUserResponse).toList();
     }
 
 
-    // @PostAuthorize - check after call method
-    @PostAuthorize("returnObject.username == authentication.name")
+    // decided from the token's uid claim, forbidden requests never reach the repository
+    @PreAuthorize("isUser(#userId)")
+    @Transactional(readOnly = true)
     public UserResponse getUser(String userId) {
         return userMapper.toUserResponse(userRepository.findById(userId).orElseThrow(() -> new AppException(ErrorCode.USER_NOT_FOUND)));
     }
 
+    // the epoch bump and its feed entry commit together
+    @Transactional
     public UserResponse updateUser(String userId, UserUpdateRequest request) {
         User updateUser = userRepository.findById(userId).orElseThrow(() -> new AppException(ErrorCode.USER_NOT_FOUND));
+        String currentPassword = updateUser.getPassword();
 
         userMapper.updateUser(updateUser, request);
-        updateUser.setPassword(passwordEncoder.encode(request.getPassword()));
+
+        // a password change signs the user out everywhere, resending the current one does not
+        boolean passwordChanged = StringUtils.hasText(request.getPassword())
+                && !passwordEncoder.matches(request.getPassword(), currentPassword);
+        if (passwordChanged) {
+            updateUser.setPassword(passwordEncoder.encode(request.getPassword()));
+            updateUser.setTokenEpoch(updateUser.getTokenEpoch() + 1);
+        } else {
+            updateUser.setPassword(currentPassword);
+        }
 
         var roles = roleRepository.findAllById(request.getRoles());
         updateUser.setRoles(new HashSet<>(roles));
 
-        return userMapper.toUserResponse(userRepository.save(updateUser));
+        updateUser = userRepository.save(updateUser);
+        if (passwordChanged) {
+            tokenEpochService.update(updateUser.getUsername(), updateUser.getTokenEpoch());
+            userSessionService.removeAll(updateUser.getUsername());
+        }
+        resourceVersionService.userChanged(updateUser.getUsername(), updateUser.getVersion());
+        auditService.record(AuditAction.USER_UPDATED, updateUser.getUsername());
+
+        return userMapper.toUserResponse(updateUser);
+    }
+
+    // partial update: bcrypt only runs for a new password and roles are added/removed row by row
+    @Transactional
+    public UserResponse patchUser(String userId, UserPatchRequest request) {
+        User user = userRepository.findById(userId).orElseThrow(() -> new AppException(ErrorCode.USER_NOT_FOUND));
+
+        if (Objects.nonNull(request.getVersion()) && request.getVersion() != user.getVersion()) {
+            throw new AppException(ErrorCode.USER_VERSION_CONFLICT);
+        }
+
+        userMapper.patchUser(user, request);
+
+        // as in updateUser: resending the current password keeps the sessions
+        boolean passwordChanged = StringUtils.hasText(request.getPassword())
+                && !passwordEncoder.matches(request.getPassword(), user.getPassword());
+        if (passwordChanged) {
+            user.setPassword(passwordEncoder.encode(request.getPassword()));
+            user.setTokenEpoch(user.getTokenEpoch() + 1);
+        }
+
+        if (Objects.isNull(user.getRoles())) {
+            user.setRoles(new HashSet<>());
+        }
+
+        if (!CollectionUtils.isEmpty(request.getRemoveRoles())) {
+            user.getRoles().removeIf(role -> request.getRemoveRoles().contains(role.getName()));
+        }
+
+        if (!CollectionUtils.isEmpty(request.getAddRoles())) {
+            var missing = new HashSet<>(request.getAddRoles());
+            user.getRoles().forEach(role -> missing.remove(role.getName()));
+
+            if (!missing.isEmpty()) {
+                user.getRoles().addAll(roleRepository.findAllById(missing));
+            }
+        }
+
+        try {
+            // flush so the response carries the new version
+            user = userRepository.saveAndFlush(user);
+        } catch (OptimisticLockingFailureException exception) {
+            throw new AppException(ErrorCode.USER_VERSION_CONFLICT);
+        }
+
+        if (passwordChanged) {
+            tokenEpochService.update(user.getUsername(), user.getTokenEpoch());
+            userSessionService.removeAll(user.getUsername());
+        }
+        resourceVersionService.userChanged(user.getUsername(), user.getVersion());
+        auditService.record(AuditAction.USER_UPDATED, user.getUsername());
+
+        return userMapper.toUserResponse(user);
     }
 
+    // the feed entries commit with the delete: no node reloads the epoch of a user that still exists
+    @Transactional
     public void deleteUser(String userId) {
-        userRepository.deleteById(userId);
+        userRepository.findById(userId).ifPresent(user -> {
+            userRepository.delete(user);
+            userRepository.flush();
+
+            tokenEpochService.evict(user.getUsername());
+            userSessionService.removeAll(user.getUsername());
+            resourceVersionService.userChanged(user.getUsername(), null);
+            auditService.record(AuditAction.USER_DELETED, user.getUsername());
+        });
+    }
+
+    // no query once the user's version is cached
+    public String getMyInfoETag() {
+        return resourceVersionService.getUserETag(SecurityContextHolder.getContext().getAuthentication().getName());
     }
 
+    @Transactional(readOnly = true)
     public UserResponse getMyInfo() {
         var authenticationObj = SecurityContextHolder.getContext().getAuthentication();
         String name = authenticationObj.getName();
@@ -0,0 +1,93 @@
+package com.identity_service.service;
+
+import com.identity_service.dto.response.SessionResponse;
+import com.identity_service.entity.UserSession;
+import com.identity_service.mapper.UserSessionMapper;
+import com.identity_service.repository.UserSessionRepository;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Registry of the tokens issued to each user (one row per jti), so sessions can be listed per device and
+ * dropped in bulk. Validity itself is still decided by the revocation list and the user's token epoch.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class UserSessionService {
+    private static final int MAX_DEVICE_LENGTH = 255;
+
+    UserSessionRepository userSessionRepository;
+    UserSessionMapper userSessionMapper;
+
+    @NonFinal
+    @Value("${jwt.valid-duration}")
+    protected long VALID_DURATION;
+
+    @NonFinal
+    @Value("${jwt.refreshable-duration}")
+    protected long REFRESHABLE_DURATION;
+
+    public void register(String jti, String username, Date issuedAt, Date expiresAt) {
+        userSessionRepository.save(UserSession.builder()
+                .jti(jti)
+                .username(username)
+                .device(device())
+                .issuedAt(issuedAt)
+                .expiresAt(expiresAt)
+                .build());
+    }
+
+    public void remove(String jti) {
+        userSessionRepository.deleteByJti(jti);
+    }
+
+    // one statement for every session of the user; the tokens themselves are revoked by the epoch bump
+    public int removeAll(String username) {
+        return userSessionRepository.deleteByUsername(username);
+    }
+
+    @Transactional(readOnly = true)
+    public List<SessionResponse> getMySessions() {
+        String username = SecurityContextHolder.getContext().getAuthentication().getName();
+
+        return userSessionRepository.findByUsernameAndExpiresAtAfterOrderByIssuedAtDesc(username, new Date())
+                .stream().map(userSessionMapper::toSessionResponse).toList();
+    }
+
+    // an expired token stays refreshable for (refreshable - valid) duration, its session with it
+    @Scheduled(fixedDelayString = "${revocation.purge-interval:600000}")
+    public void purge() {
+        int sessions = userSessionRepository.deleteExpiredBefore(
+                Date.from(Instant.now().minus(REFRESHABLE_DURATION - VALID_DURATION, ChronoUnit.SECONDS)));
+        log.info("Purged {} expired sessions", sessions);
+    }
+
+    private String device() {
+        if (!(RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes)) {
+            return null;
+        }
+
+        String userAgent = attributes.getRequest().getHeader(HttpHeaders.USER_AGENT);
+        return userAgent == null || userAgent.length() <= MAX_DEVICE_LENGTH
+                ? userAgent
+                : userAgent.substring(0, MAX_DEVICE_LENGTH);
+    }
+}
@@ -0,0 +1,89 @@
+package com.identity_service.service;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bloom filter over usernames: {@link #mightContain} never answers false for a name that was put, and
+ * answers true for an absent name with about the configured false positive rate while the number of
+ * names stays below the capacity. Safe for concurrent use; names cannot be removed.
+ */
+public final class UsernameFilter {
+    private final AtomicLongArray words;
+    private final long bits;
+    private final int hashes;
+    private final long capacity;
+    private final AtomicLong size = new AtomicLong();
+
+    private UsernameFilter(long bits, int hashes, long capacity) {
+        this.words = new AtomicLongArray((int) ((bits + 63) >>> 6));
+        this.bits = (long) words.length() << 6;
+        this.hashes = hashes;
+        this.capacity = capacity;
+    }
+
+    public static UsernameFilter create(long capacity, double falsePositiveRate) {
+        long n = Math.max(1, capacity);
+        long bits = (long) Math.ceil(-n * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        int hashes = Math.max(1, (int) Math.round((double) bits / n * Math.log(2)));
+
+        return new UsernameFilter(Math.max(64, bits), hashes, n);
+    }
+
+    // key must already be normalized; false when every bit was already set, e.g. for a repeated name
+    public boolean put(String key) {
+        long hash = hash(key);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        boolean changed = false;
+
+        for (int i = 1; i <= hashes; i++) {
+            long position = Integer.toUnsignedLong(h1 + i * h2) % bits;
+            long mask = 1L << position;
+            long previous = words.getAndAccumulate((int) (position >>> 6), mask, (word, bit) -> word | bit);
+            changed |= (previous & mask) == 0;
+        }
+
+        if (changed) {
+            size.incrementAndGet();
+        }
+        return changed;
+    }
+
+    public boolean mightContain(String key) {
+        long hash = hash(key);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+
+        for (int i = 1; i <= hashes; i++) {
+            long position = Integer.toUnsignedLong(h1 + i * h2) % bits;
+            if ((words.get((int) (position >>> 6)) & (1L << position)) == 0) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    // puts that set at least one bit, repeated names are not counted
+    public long size() {
+        return size.get();
+    }
+
+    public long capacity() {
+        return capacity;
+    }
+
+    // FNV-1a over the chars, finished with the splitmix64 mixer so both halves are usable
+    private static long hash(String key) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            hash ^= key.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+
+        hash = (hash ^ (hash >>> 30)) * 0xbf58476d1ce4e5b9L;
+        hash = (hash ^ (hash >>> 27)) * 0x94d049bb133111ebL;
+        return hash ^ (hash >>> 31);
+    }
+}
@@ -0,0 +1,210 @@
+package com.identity_service.service;
+
+import com.identity_service.dto.event.RevocationEvent;
+import com.identity_service.enums.RevocationKind;
+import com.identity_service.repository.RevocationLogRepository;
+import com.identity_service.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.text.Normalizer;
+import java.util.List;
+import java.util.Locale;
+import java.util.NavigableSet;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory {@link UsernameFilter} of every username, so logins for usernames that certainly do not exist
+ * are rejected and duplicate signups are detected without touching the database or running bcrypt.
+ * Created users arrive as USER events on the revocation feed; deleted ones only leave false positives
+ * behind and are dropped by the periodic rebuild. Negative answers never touch the database: a user created
+ * on another node is unknown here until the next poll, up to {@code revocation.feed.poll-interval}.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public class UsernameIndexService implements SmartLifecycle {
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+
+    UserRepository userRepository;
+    RevocationLogRepository revocationLogRepository;
+    RevocationFeed revocationFeed;
+
+    // highest feed sequence reflected in the filter
+    AtomicLong position = new AtomicLong();
+
+    // sequences applied within the lookback window, the feed delivers them more than once
+    NavigableSet<Long> applied = new ConcurrentSkipListSet<>();
+
+    // rebuilds page through the users table, a monitor would pin virtual threads
+    Lock rebuildLock = new ReentrantLock();
+
+    // null until loaded: every name might exist
+    @NonFinal
+    volatile UsernameFilter filter;
+
+    // filter being loaded, receives the names created meanwhile
+    @NonFinal
+    volatile UsernameFilter building;
+
+    @NonFinal
+    volatile boolean running;
+
+    @NonFinal
+    @Value("${username-filter.enabled:true}")
+    protected boolean ENABLED;
+
+    @NonFinal
+    @Value("${username-filter.expected-users:1000000}")
+    protected long EXPECTED_USERS;
+
+    @NonFinal
+    @Value("${username-filter.false-positive-rate:0.01}")
+    protected double FALSE_POSITIVE_RATE;
+
+    @NonFinal
+    @Value("${username-filter.page-size:10000}")
+    protected int PAGE_SIZE;
+
+    // entries may commit out of sequence order within this window, see JdbcRevocationFeed
+    @NonFinal
+    @Value("${revocation.feed.lookback:100}")
+    protected long LOOKBACK;
+
+    @PostConstruct
+    void init() {
+        revocationFeed.subscribe(this::apply);
+    }
+
+    @Override
+    public void start() {
+        if (ENABLED) {
+            rebuild();
+        }
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return 0;
+    }
+
+    // false: the username does not exist; true: it may exist, ask the database
+    public boolean mightExist(String username) {
+        if (Objects.isNull(username)) {
+            return false;
+        }
+
+        UsernameFilter current = filter;
+        return Objects.isNull(current) || current.mightContain(key(username));
+    }
+
+    public void put(String username) {
+        // read before the filter: a null here means the next load starts after this user was committed
+        UsernameFilter pending = building;
+        UsernameFilter current = filter;
+
+        if (Objects.nonNull(current)) {
+            current.put(key(username));
+        }
+        if (Objects.nonNull(pending)) {
+            pending.put(key(username));
+        }
+    }
+
+    // drops the bits of deleted users and anything a lost event left out, resizes an overfull filter
+    @Scheduled(fixedDelayString = "${username-filter.rebuild-interval:3600000}")
+    public void scheduledRebuild() {
+        if (ENABLED && running) {
+            rebuild();
+        }
+    }
+
+    void rebuild() {
+        rebuildLock.lock();
+        try {
+            doRebuild();
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    private void doRebuild() {
+        long start = System.currentTimeMillis();
+        // read before the users: whatever was committed up to here is in the pages below
+        long seq = revocationLogRepository.findMaxSeq();
+
+        UsernameFilter previous = filter;
+        long capacity = Math.max(EXPECTED_USERS, Objects.isNull(previous) ? 0 : previous.size() * 2);
+        UsernameFilter next = UsernameFilter.create(capacity, FALSE_POSITIVE_RATE);
+        building = next;
+
+        try {
+            String after = "";
+            List<String> page;
+            do {
+                page = userRepository.findUsernamesAfter(after, PageRequest.of(0, PAGE_SIZE));
+                for (String username : page) {
+                    next.put(key(username));
+                    after = username;
+                }
+            } while (page.size() == PAGE_SIZE);
+
+            filter = next;
+            position.accumulateAndGet(seq, Math::max);
+        } finally {
+            building = null;
+        }
+
+        log.info("Username filter built with {} users in {} ms", next.size(), System.currentTimeMillis() - start);
+    }
+
+    private void apply(RevocationEvent event) {
+        Long seq = event.getSeq();
+        if (Objects.nonNull(seq)) {
+            // local events come again with the poll, and every poll re-reads the lookback window
+            if (seq <= position.get() - LOOKBACK || !applied.add(seq)) {
+                return;
+            }
+            long current = position.accumulateAndGet(seq, Math::max);
+            applied.headSet(current - LOOKBACK, true).clear();
+        }
+
+        // deletions are left to the scheduled rebuild
+        if (event.getKind() == RevocationKind.USER && Objects.nonNull(event.getSubject())
+                && Objects.nonNull(event.getVersion())) {
+            put(event.getSubject());
+        }
+    }
+
+    // approximates the case and accent insensitive utf8mb4_unicode_ci comparison of the username column
+    static String key(String username) {
+        String decomposed = Normalizer.normalize(username, Normalizer.Form.NFD);
+        return COMBINING_MARKS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,208 @@
+package com.identity_service.service;
+
+import com.identity_service.configuration.InternedJwtAuthenticationConverter;
+import com.identity_service.configuration.JwtKeyProvider;
+import com.identity_service.dto.request.AuthorizationCheck;
+import com.identity_service.dto.request.AuthorizationRequest;
+import com.identity_service.dto.request.IntrospectRequest;
+import com.identity_service.entity.Role;
+import com.identity_service.entity.User;
+import com.identity_service.repository.RoleRepository;
+import com.identity_service.repository.UserRepository;
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Hibernate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Exercises the hot paths with a sample of the existing users before the application reports ready:
+ * readiness only switches to ACCEPTING_TRAFFIC once the runners are done, so rollouts do not send the
+ * first requests to cold JIT code, an empty connection pool and empty authority caches. Nothing is written.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+@ConditionalOnProperty(prefix = "warmup", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class WarmupRunner implements ApplicationRunner {
+    private static final String WARMUP_USERNAME = "__warmup__";
+    private static final String WARMUP_PASSWORD = "warmup-password";
+    private static final int QUERY_EVERY = 1000;
+    private static final int SAMPLE_USERS = 20;
+
+    ApplicationContext applicationContext;
+    AuthenticationService authenticationService;
+    JwtKeyProvider jwtKeyProvider;
+    InternedJwtAuthenticationConverter internedJwtAuthenticationConverter;
+    UserRepository userRepository;
+    RoleRepository roleRepository;
+    RbacGraphService rbacGraphService;
+    TokenEpochService tokenEpochService;
+    PasswordEncoder passwordEncoder;
+    PlatformTransactionManager transactionManager;
+
+    // readiness waits at most this long
+    @NonFinal
+    @Value("${warmup.budget:10000}")
+    protected long BUDGET;
+
+    @NonFinal
+    @Value("${warmup.iterations:20000}")
+    protected int ITERATIONS;
+
+    // on its own thread: a pool that cannot connect or a slow sample query must not hold readiness past the budget
+    @Override
+    public void run(ApplicationArguments args) {
+        long deadline = System.currentTimeMillis() + BUDGET;
+        Thread warmup = Thread.ofPlatform().name("warmup").daemon().start(() -> warmUp(deadline));
+
+        try {
+            if (!warmup.join(Duration.ofMillis(BUDGET))) {
+                log.warn("Warmup still running after {} ms, readiness no longer waits for it", BUDGET);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void warmUp(long deadline) {
+        long start = System.currentTimeMillis();
+        int rounds = 0;
+
+        try {
+            prefillConnectionPools(deadline);
+
+            List<User> users = sampleUsers(deadline);
+            JwtDecoder jwtDecoder = jwtKeyProvider.createJwtDecoder();
+            String hash = passwordEncoder.encode(WARMUP_PASSWORD);
+
+            while (rounds < ITERATIONS && System.currentTimeMillis() < deadline) {
+                User user = users.get(rounds % users.size());
+
+                // sign, verify (signature, revocation, epoch) and the resource server decode + authorities
+                String token = authenticationService.generateToken(user);
+                boolean valid = authenticationService.introspect(IntrospectRequest.builder().token(token).build()).isValid();
+                if (!valid && rounds < users.size()) {
+                    log.warn("Warmup token of {} rejected", user.getUsername());
+                }
+                internedJwtAuthenticationConverter.convert(jwtDecoder.decode(token));
+
+                // the login lookup and the batch authorization role lookup
+                if (rounds % QUERY_EVERY == 0) {
+                    passwordEncoder.matches(WARMUP_PASSWORD, hash);
+                    userRepository.findByUsername(user.getUsername());
+                    rbacGraphService.authorize(AuthorizationRequest.builder()
+                            .checks(List.of(AuthorizationCheck.builder()
+                                    .subject(user.getUsername())
+                                    .permission(WARMUP_USERNAME)
+                                    .build()))
+                            .build());
+                }
+                rounds++;
+            }
+        } catch (Exception e) {
+            // a failed warmup costs latency, not the startup
+            log.warn("Warmup aborted: {}", e.getMessage());
+        } finally {
+            tokenEpochService.forget(WARMUP_USERNAME);
+        }
+
+        log.info("Warmup finished in {} ms after {} token rounds", System.currentTimeMillis() - start, rounds);
+    }
+
+    // Hikari opens connections lazily, holding minimumIdle of them at once leaves the pool full
+    private void prefillConnectionPools(long deadline) throws SQLException {
+        for (HikariDataSource dataSource : applicationContext.getBeansOfType(HikariDataSource.class).values()) {
+            List<Connection> connections = new ArrayList<>();
+            try {
+                for (int i = 0; i < dataSource.getMinimumIdle() && System.currentTimeMillis() < deadline; i++) {
+                    connections.add(dataSource.getConnection());
+                }
+            } finally {
+                for (Connection connection : connections) {
+                    connection.close();
+                }
+            }
+        }
+    }
+
+    // the first existing users with their real roles, synthetic ones on an empty database
+    private List<User> sampleUsers(long deadline) {
+        List<User> users = new TransactionTemplate(transactionManager).execute(status -> {
+            List<User> sample = new ArrayList<>();
+            for (String username : userRepository.findUsernamesAfter("", PageRequest.of(0, SAMPLE_USERS))) {
+                if (System.currentTimeMillis() >= deadline) {
+                    break;
+                }
+                userRepository.findByUsername(username).ifPresent(user -> {
+                    user.getRoles().forEach(WarmupRunner::initialize);
+                    sample.add(user);
+                });
+            }
+            return sample;
+        });
+
+        if (!users.isEmpty()) {
+            return users;
+        }
+
+        // epoch 0 like a new user, known to the epoch cache until the warmup ends
+        tokenEpochService.prime(WARMUP_USERNAME, 0);
+        return syntheticUsers();
+    }
+
+    // one user per existing role, one with every role and one without any, so the scopes are the real ones
+    private List<User> syntheticUsers() {
+        List<Role> roles = new TransactionTemplate(transactionManager).execute(status -> {
+            List<Role> all = roleRepository.findAll();
+            all.forEach(WarmupRunner::initialize);
+            return all;
+        });
+
+        List<User> users = new ArrayList<>();
+        users.add(syntheticUser(Set.of()));
+        users.add(syntheticUser(new HashSet<>(roles)));
+        roles.forEach(role -> users.add(syntheticUser(Set.of(role))));
+
+        return users;
+    }
+
+    private User syntheticUser(Set<Role> roles) {
+        return User.builder()
+                .id(WARMUP_USERNAME)
+                .username(WARMUP_USERNAME)
+                .roles(roles)
+                .build();
+    }
+
+    // the hierarchy may be walked outside the session for roles newer than the graph snapshot
+    private static void initialize(Role role) {
+        Hibernate.initialize(role.getPermissions());
+        if (!Hibernate.isInitialized(role.getInherits())) {
+            Hibernate.initialize(role.getInherits());
+            role.getInherits().forEach(WarmupRunner::initialize);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+-- Schema as previously generated by ddl-auto update. Existing databases are baselined at this version,
+-- so it must stay exactly that schema: everything added since goes into later versions.
+create table if not exists user (
+    id varchar(255) not null,
+    username varchar(255) collate utf8mb4_unicode_ci,
+    password varchar(255),
+    first_name varchar(255),
+    last_name varchar(255),
+    dob date,
+    primary key (id),
+    constraint uk_user_username unique (username)
+) engine=InnoDB;
+
+create table if not exists permission (
+    name varchar(255) not null,
+    description varchar(255),
+    primary key (name)
+) engine=InnoDB;
+
+create table if not exists role (
+    name varchar(255) not null,
+    description varchar(255),
+    primary key (name)
+) engine=InnoDB;
+
+create table if not exists role_permissions (
+    role_name varchar(255) not null,
+    permissions_name varchar(255) not null,
+    primary key (role_name, permissions_name),
+    constraint fk_role_permissions_role foreign key (role_name) references role (name),
+    constraint fk_role_permissions_permission foreign key (permissions_name) references permission (name)
+) engine=InnoDB;
+
+create table if not exists user_roles (
+    user_id varchar(255) not null,
+    roles_name varchar(255) not null,
+    primary key (user_id, roles_name),
+    constraint fk_user_roles_user foreign key (user_id) references user (id),
+    constraint fk_user_roles_role foreign key (roles_name) references role (name)
+) engine=InnoDB;
+
+create table if not exists invalid_token (
+    id varchar(255) not null,
+    expiration_time datetime(6),
+    primary key (id)
+) engine=InnoDB;
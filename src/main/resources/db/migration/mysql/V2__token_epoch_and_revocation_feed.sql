@@ -0,0 +1,22 @@
+-- per-user token epoch and the optimistic-locking version
+alter table user add column token_epoch bigint not null default 0;
+alter table user add column version bigint not null default 0;
+
+-- revocation change feed polled by every node
+create table if not exists revocation_log (
+    seq bigint not null auto_increment,
+    kind varchar(32),
+    subject varchar(255),
+    expiration_time datetime(6),
+    epoch bigint,
+    created_at datetime(6),
+    primary key (seq)
+) engine=InnoDB;
+
+-- versions of the compact scope dictionary
+create table if not exists permission_dictionary (
+    version varchar(255) not null,
+    names text,
+    created_at datetime(6),
+    primary key (version)
+) engine=InnoDB;
@@ -0,0 +1,8 @@
+-- username lookups use the unique username index (case insensitive through the column collation)
+
+-- join tables: the primary keys serve owner -> target, the indexes InnoDB keeps for the foreign keys
+-- serve target -> owner (users holding a role, roles granting a permission)
+
+-- expiry scans: revoked token load at startup and the purge jobs
+create index idx_invalid_token_expiration_time on invalid_token (expiration_time);
+create index idx_revocation_log_created_at on revocation_log (created_at);
@@ -0,0 +1,2 @@
+-- entity version carried by USER events
+alter table revocation_log add column version bigint;
@@ -0,0 +1,12 @@
+-- issued tokens per user: listing is a range scan on (username, expires_at), logout-all one delete
+create table if not exists user_session (
+    jti varchar(255) not null,
+    username varchar(255) not null,
+    device varchar(255),
+    issued_at datetime(6) not null,
+    expires_at datetime(6) not null,
+    primary key (jti)
+) engine=InnoDB;
+
+create index idx_user_session_username_expires_at on user_session (username, expires_at);
+create index idx_user_session_expires_at on user_session (expires_at);
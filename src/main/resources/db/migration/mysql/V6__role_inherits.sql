@@ -0,0 +1,10 @@
+-- role hierarchy: role_name grants everything inherits_name grants
+create table if not exists role_inherits (
+    role_name varchar(255) not null,
+    inherits_name varchar(255) not null,
+    primary key (role_name, inherits_name),
+    constraint fk_role_inherits_role foreign key (role_name) references role (name),
+    constraint fk_role_inherits_inherits foreign key (inherits_name) references role (name)
+) engine=InnoDB;
+
+create index idx_role_inherits_inherits_name on role_inherits (inherits_name, role_name);
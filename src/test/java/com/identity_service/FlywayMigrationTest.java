@@ -0,0 +1,90 @@
+package com.identity_service;
+
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.output.MigrateResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// the MySQL migrations against a fresh database and against one created by ddl-auto before Flyway
+@Testcontainers
+public class FlywayMigrationTest {
+    @Container
+    static final MySQLContainer<?> MY_SQL_CONTAINER = new MySQLContainer<>("mysql:latest");
+
+    private DataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void initData() {
+        dataSource = new DriverManagerDataSource(MY_SQL_CONTAINER.getJdbcUrl(),
+                MY_SQL_CONTAINER.getUsername(), MY_SQL_CONTAINER.getPassword());
+        jdbcTemplate = new JdbcTemplate(dataSource);
+
+        String database = MY_SQL_CONTAINER.getDatabaseName();
+        jdbcTemplate.execute("drop database " + database);
+        jdbcTemplate.execute("create database " + database);
+    }
+
+    @Test
+    void migrate_emptyDatabase_allVersionsApplied() {
+        MigrateResult result = flyway().migrate();
+
+        assertThat(result.success).isTrue();
+        assertThat(result.initialSchemaVersion).isNull();
+        assertCurrentSchema();
+    }
+
+    @Test
+    void migrate_ddlAutoBaseline_laterVersionsApplied() {
+        new ResourceDatabasePopulator(new ClassPathResource("db/baseline/mysql-ddl-auto.sql")).execute(dataSource);
+
+        MigrateResult result = flyway().migrate();
+
+        // V1 is skipped: the existing tables are the baseline
+        assertThat(result.success).isTrue();
+        assertThat(result.initialSchemaVersion).isEqualTo("1");
+        assertCurrentSchema();
+
+        Map<String, Object> admin = jdbcTemplate.queryForMap(
+                "select username, token_epoch, version from user where id = 'c1a2b3d4'");
+        assertThat(admin).containsEntry("username", "admin")
+                .containsEntry("token_epoch", 0L)
+                .containsEntry("version", 0L);
+        assertThat(jdbcTemplate.queryForObject("select count(*) from user_roles", Integer.class)).isEqualTo(1);
+    }
+
+    // as configured in application.yaml
+    private Flyway flyway() {
+        return Flyway.configure()
+                .dataSource(dataSource)
+                .locations("classpath:db/migration/mysql")
+                .baselineOnMigrate(true)
+                .load();
+    }
+
+    private void assertCurrentSchema() {
+        assertThat(flyway().info().pending()).isEmpty();
+
+        for (String table : new String[]{"revocation_log", "permission_dictionary", "user_session", "role_inherits"}) {
+            assertThat(jdbcTemplate.queryForObject(
+                    "select count(*) from information_schema.tables where table_schema = database() and table_name = ?",
+                    Integer.class, table)).as(table).isEqualTo(1);
+        }
+        assertThat(jdbcTemplate.queryForObject(
+                "select count(*) from information_schema.columns where table_schema = database()"
+                        + " and table_name = 'revocation_log' and column_name = 'version'",
+                Integer.class)).isEqualTo(1);
+    }
+}
@@ -0,0 +1,234 @@
+package com.identity_service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.h2.tools.RunScript;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Time to ready of the startup-optimized artifact, launched the way the fast-startup Docker stage runs it:
+ * the {@code -Pfast-startup} jar extracted, an AppCDS archive recorded by a training run, then
+ * {@code -XX:SharedArchiveFile} with {@code -Dspring.aot.enabled=true}. The median over {@link #RUNS} launches
+ * must stay within {@code startup-baseline.properties} plus its tolerance. The baseline only holds for the
+ * machine and JVM it was measured on: on any other, and with {@code -Dstartup.calibrate=true}, the measured
+ * baseline is written to {@code target/startup-baseline.properties} instead, to be checked in.
+ * <p>
+ * Run with {@code mvn -Pfast-startup verify}: needs the packaged jar, so it is left to failsafe.
+ */
+@Slf4j
+@Tag("startup")
+public class StartupTimeTest {
+    private static final int RUNS = 5;
+    private static final Duration READY_TIMEOUT = Duration.ofSeconds(60);
+    private static final String CALIBRATED_ON = "calibrated.on";
+    private static final String TIME_TO_READY = "time-to-ready.ms";
+    private static final String TOLERANCE = "tolerance";
+    private static final double DEFAULT_TOLERANCE = 0.20;
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofMillis(200))
+            .build();
+
+    @Test
+    void start_fastStartupArtifact_readyWithinBaseline() throws Exception {
+        Properties baseline = new Properties();
+        try (InputStream in = getClass().getResourceAsStream("/startup-baseline.properties")) {
+            baseline.load(in);
+        }
+
+        Path work = Path.of("target", "startup-guard");
+        deleteRecursively(work);
+        Path application = extract(Path.of(System.getProperty("startup.jar")), work);
+        Path database = createDatabase(work);
+
+        // the archive is recorded the way the Dockerfile does: stop after the refresh, no requests served
+        run(command(application, database, 0, "-XX:ArchiveClassesAtExit=app.jsa", "-Dspring.context.exit=onRefresh"),
+                application).waitFor(READY_TIMEOUT.toSeconds(), TimeUnit.SECONDS);
+        assertThat(application.resolve("app.jsa")).as("AppCDS archive").exists();
+
+        List<Long> timesToReady = new ArrayList<>();
+        for (int i = 0; i < RUNS; i++) {
+            timesToReady.add(timeToReady(application, database));
+        }
+        timesToReady.sort(Comparator.naturalOrder());
+        long median = timesToReady.get(RUNS / 2);
+        log.info("Time to ready on {}: median {} ms of {}", machine(), median, timesToReady);
+
+        if (Boolean.getBoolean("startup.calibrate")) {
+            calibrate(median);
+            return;
+        }
+
+        // a baseline of another machine (or none yet) is meaningless here: fail with the one to check in
+        String calibratedOn = baseline.getProperty(CALIBRATED_ON, "none").trim();
+        if (!calibratedOn.equals(machine())) {
+            Path file = calibrate(median);
+            assertThat(calibratedOn)
+                    .as("startup baseline measured on %s, running on %s: check in %s", calibratedOn, machine(), file)
+                    .isEqualTo(machine());
+        }
+
+        long budget = Long.parseLong(baseline.getProperty(TIME_TO_READY).trim());
+        double tolerance = Double.parseDouble(baseline.getProperty(TOLERANCE, String.valueOf(DEFAULT_TOLERANCE)).trim());
+        assertThat(median)
+                .as("median time to ready in ms, baseline %d ms + %d%%", budget, Math.round(tolerance * 100))
+                .isLessThanOrEqualTo(Math.round(budget * (1 + tolerance)));
+    }
+
+    // from launch until the readiness probe answers UP, the process is stopped afterwards
+    private long timeToReady(Path application, Path database) throws Exception {
+        int port = freePort();
+        var readiness = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/identity/actuator/health/readiness"))
+                .timeout(Duration.ofSeconds(1))
+                .build();
+
+        long start = System.nanoTime();
+        Process process = run(command(application, database, port, "-XX:SharedArchiveFile=app.jsa"), application);
+        try {
+            while (System.nanoTime() - start < READY_TIMEOUT.toNanos()) {
+                assertThat(process.isAlive()).as("application exited, see %s", application.resolve("app.log")).isTrue();
+                try {
+                    if (httpClient.send(readiness, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                        return Duration.ofNanos(System.nanoTime() - start).toMillis();
+                    }
+                } catch (IOException e) {
+                    // not listening yet
+                }
+                Thread.sleep(10);
+            }
+            throw new AssertionError("not ready within " + READY_TIMEOUT);
+        } finally {
+            process.destroy();
+            if (!process.waitFor(10, TimeUnit.SECONDS)) {
+                process.destroyForcibly().waitFor();
+            }
+        }
+    }
+
+    // the fast-startup profile leaves migrations to another node, H2 stands in for that node's database
+    private static List<String> command(Path application, Path database, int port, String... jvmOptions) throws Exception {
+        Path h2 = Path.of(org.h2.Driver.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(List.of(jvmOptions));
+        command.addAll(List.of(
+                "-Dspring.aot.enabled=true",
+                "-Dspring.profiles.active=fast-startup",
+                "-cp", "app.jar" + File.pathSeparator + h2,
+                IdentityServiceApplication.class.getName(),
+                "--server.port=" + port,
+                "--spring.datasource.url=jdbc:h2:file:" + database.toAbsolutePath() + ";MODE=MYSQL;NON_KEYWORDS=USER",
+                "--spring.datasource.driverClassName=org.h2.Driver",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=sa",
+                "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                // the warmup has its own budget (warmup.budget), this guards the startup itself
+                "--warmup.iterations=0",
+                "--audit.path=" + application.resolve("audit").toAbsolutePath()));
+        return command;
+    }
+
+    private static Process run(List<String> command, Path application) throws IOException {
+        return new ProcessBuilder(command)
+                .directory(application.toFile())
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.appendTo(application.resolve("app.log").toFile()))
+                .start();
+    }
+
+    // the exploded layout CDS needs, as in the fast-startup Docker stage
+    private static Path extract(Path jar, Path work) throws Exception {
+        Files.createDirectories(work);
+        Files.copy(jar, work.resolve("app.jar"));
+
+        Path application = work.resolve("application");
+        Process process = new ProcessBuilder(Path.of(System.getProperty("java.home"), "bin", "java").toString(),
+                "-Djarmode=tools", "-jar", "app.jar", "extract", "--destination", "application")
+                .directory(work.toFile())
+                .inheritIO()
+                .start();
+        assertThat(process.waitFor()).as("jar extraction exit code").isZero();
+        return application;
+    }
+
+    private Path createDatabase(Path work) throws Exception {
+        Path database = work.resolve("startup");
+        Path migrations = Path.of(getClass().getResource("/db/migration/h2").toURI());
+
+        try (Connection connection = DriverManager.getConnection(
+                "jdbc:h2:file:" + database.toAbsolutePath() + ";MODE=MYSQL;NON_KEYWORDS=USER", "sa", "sa");
+             Stream<Path> scripts = Files.list(migrations)) {
+            for (Path script : scripts.sorted(Comparator.comparingInt(StartupTimeTest::version)).toList()) {
+                try (Reader reader = Files.newBufferedReader(script)) {
+                    RunScript.execute(connection, reader);
+                }
+            }
+        }
+        return database;
+    }
+
+    // V12__name.sql -> 12
+    private static int version(Path script) {
+        String name = script.getFileName().toString();
+        return Integer.parseInt(name.substring(1, name.indexOf("__")));
+    }
+
+    private static Path calibrate(long median) throws IOException {
+        String baseline = "# written by StartupTimeTest: median time to ready of " + RUNS + " launches\n"
+                + CALIBRATED_ON + " = " + machine() + "\n\n"
+                + TIME_TO_READY + " = " + median + "\n"
+                + TOLERANCE + " = " + DEFAULT_TOLERANCE + "\n";
+
+        Path file = Path.of("target", "startup-baseline.properties");
+        Files.writeString(file, baseline);
+        log.info("Startup baseline written to {}", file.toAbsolutePath());
+        return file;
+    }
+
+    // startup time depends on the JVM and on the cores available to the JIT and GC threads
+    private static String machine() {
+        return System.getProperty("java.vm.vendor") + " " + System.getProperty("java.runtime.version")
+                + " " + System.getProperty("os.arch") + " " + Runtime.getRuntime().availableProcessors() + " cpus";
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static void deleteRecursively(Path directory) throws IOException {
+        if (!Files.exists(directory)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+}
@@ -0,0 +1,215 @@
+package com.identity_service.configuration;
+
+import com.identity_service.dto.request.AuthenticationRequest;
+import com.identity_service.dto.request.UserCreationRequest;
+import com.identity_service.service.AuthenticationService;
+import com.identity_service.service.UserService;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingFile;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+
+import java.io.InputStream;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Guards the per-request authentication path against new allocations: decodes and converts one token in a
+ * loop, measures the bytes allocated per call with ThreadMXBean and the allocation hotspots with JFR, and
+ * compares both with {@code allocation-budgets.properties}. The budgets only hold for the JVM they were
+ * calibrated on: on any other JVM, and with {@code -Dallocation.calibrate=true}, the measured values plus
+ * headroom are written to {@code target/allocation-budgets.properties} instead, to be checked in.
+ */
+@Slf4j
+@SpringBootTest
+@TestPropertySource("/test.properties")
+public class DecodeAllocationTest {
+    private static final int WARMUP_CALLS = 20_000;
+    private static final int MEASURED_CALLS = 10_000;
+    private static final String PACKAGE = "com.identity_service.";
+    private static final String HOTSPOT = "hotspot.";
+    private static final String CALIBRATED_JVM = "calibrated.jvm";
+    // the thread's allocated bytes are exact, JFR samples are estimates
+    private static final double BYTES_HEADROOM = 1.10;
+    private static final double HOTSPOT_HEADROOM = 1.25;
+    // bytes per call allowed for a method that allocated nothing worth listing at calibration
+    private static final long NEW_HOTSPOT_BUDGET = 256;
+
+    @Autowired
+    private CustomJwtDecoder customJwtDecoder;
+
+    @Autowired
+    private InternedJwtAuthenticationConverter internedJwtAuthenticationConverter;
+
+    @Autowired
+    private AuthenticationService authenticationService;
+
+    @Autowired
+    private UserService userService;
+
+    @Test
+    void decode_allocationsWithinBudget() throws Exception {
+        Properties budgets = new Properties();
+        try (InputStream in = getClass().getResourceAsStream("/allocation-budgets.properties")) {
+            budgets.load(in);
+        }
+
+        userService.createUser(UserCreationRequest.builder()
+                .username("gustavo")
+                .password("12345678")
+                .build());
+        String token = authenticationService.authenticate(AuthenticationRequest.builder()
+                .username("gustavo")
+                .password("12345678")
+                .build()).getToken();
+
+        // JIT first, so escape analysis has removed what it can
+        run(token, WARMUP_CALLS);
+
+        var threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().threadId();
+        long before = threads.getThreadAllocatedBytes(threadId);
+        run(token, MEASURED_CALLS);
+        long bytesPerCall = (threads.getThreadAllocatedBytes(threadId) - before) / MEASURED_CALLS;
+
+        Map<String, Long> hotspots = hotspots(token, threadId);
+
+        StringBuilder report = new StringBuilder()
+                .append("decode.bytes-per-call = ").append(bytesPerCall).append('\n');
+        hotspots.forEach((method, bytes) -> report.append(HOTSPOT).append(method).append(" = ").append(bytes).append('\n'));
+
+        log.info("Allocation report (bytes per call) on {}:\n{}", jvm(), report);
+        Files.createDirectories(Path.of("target"));
+        Files.writeString(Path.of("target", "allocation-report.txt"), report);
+
+        if (Boolean.getBoolean("allocation.calibrate")) {
+            calibrate(bytesPerCall, hotspots);
+            return;
+        }
+
+        // budgets of another JVM (or none yet) are meaningless here: fail with the values to check in
+        String calibratedJvm = budgets.getProperty(CALIBRATED_JVM, "none").trim();
+        if (!calibratedJvm.equals(jvm())) {
+            Path file = calibrate(bytesPerCall, hotspots);
+            assertThat(calibratedJvm)
+                    .as("allocation budgets calibrated on %s, running on %s: check in %s", calibratedJvm, jvm(), file)
+                    .isEqualTo(jvm());
+        }
+
+        List<String> violations = new ArrayList<>();
+        if (bytesPerCall > Long.parseLong(budgets.getProperty("decode.bytes-per-call").trim())) {
+            violations.add("decode.bytes-per-call = " + bytesPerCall);
+        }
+
+        long defaultBudget = Long.parseLong(budgets.getProperty(HOTSPOT + "default").trim());
+        hotspots.forEach((method, bytes) -> {
+            String budget = budgets.getProperty(HOTSPOT + method);
+            if (bytes > (budget == null ? defaultBudget : Long.parseLong(budget.trim()))) {
+                violations.add(HOTSPOT + method + " = " + bytes);
+            }
+        });
+
+        assertThat(violations).as("allocations over allocation-budgets.properties").isEmpty();
+    }
+
+    // measured values plus headroom, methods allocating less than the default budget are covered by it
+    private static Path calibrate(long bytesPerCall, Map<String, Long> hotspots) throws Exception {
+        StringBuilder budgets = new StringBuilder()
+                .append("# written by DecodeAllocationTest: measured bytes per call + ")
+                .append(Math.round((BYTES_HEADROOM - 1) * 100)).append("% (exact) and + ")
+                .append(Math.round((HOTSPOT_HEADROOM - 1) * 100)).append("% (JFR samples)\n")
+                .append(CALIBRATED_JVM).append(" = ").append(jvm()).append("\n\n")
+                .append("decode.bytes-per-call = ").append(withHeadroom(bytesPerCall, BYTES_HEADROOM)).append("\n\n");
+
+        hotspots.forEach((method, bytes) -> {
+            if (withHeadroom(bytes, HOTSPOT_HEADROOM) > NEW_HOTSPOT_BUDGET) {
+                budgets.append(HOTSPOT).append(method).append(" = ")
+                        .append(withHeadroom(bytes, HOTSPOT_HEADROOM)).append('\n');
+            }
+        });
+        budgets.append(HOTSPOT).append("default = ").append(NEW_HOTSPOT_BUDGET).append('\n');
+
+        Path file = Path.of("target", "allocation-budgets.properties");
+        Files.writeString(file, budgets);
+        log.info("Calibrated allocation budgets written to {}", file.toAbsolutePath());
+        return file;
+    }
+
+    private static long withHeadroom(long bytes, double headroom) {
+        return (long) Math.ceil(bytes * headroom);
+    }
+
+    // budgets depend on the JIT and on the collector's allocation paths
+    private static String jvm() {
+        String collectors = ManagementFactory.getGarbageCollectorMXBeans().stream()
+                .map(GarbageCollectorMXBean::getName)
+                .collect(Collectors.joining("/"));
+        return System.getProperty("java.vm.vendor") + " " + System.getProperty("java.vm.name")
+                + " " + System.getProperty("java.runtime.version") + " " + collectors;
+    }
+
+    private void run(String token, int calls) {
+        for (int i = 0; i < calls; i++) {
+            internedJwtAuthenticationConverter.convert(customJwtDecoder.decode(token));
+        }
+    }
+
+    // method -> estimated bytes per call, from the JFR allocation samples of this thread
+    private Map<String, Long> hotspots(String token, long threadId) throws Exception {
+        Path file = Files.createTempFile("decode-allocation", ".jfr");
+        Map<String, Long> weights = new TreeMap<>();
+
+        try (Recording recording = new Recording()) {
+            recording.enable("jdk.ObjectAllocationSample").with("throttle", "1000000/s").withStackTrace();
+            recording.start();
+            run(token, MEASURED_CALLS);
+            recording.stop();
+            recording.dump(file);
+        }
+
+        try {
+            for (RecordedEvent event : RecordingFile.readAllEvents(file)) {
+                if (event.getThread() == null || event.getThread().getJavaThreadId() != threadId
+                        || event.getStackTrace() == null) {
+                    continue;
+                }
+
+                String method = innermostOwnFrame(event.getStackTrace().getFrames());
+                if (method != null) {
+                    weights.merge(method, event.getLong("weight"), Long::sum);
+                }
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+
+        weights.replaceAll((method, weight) -> weight / MEASURED_CALLS);
+        return weights;
+    }
+
+    // allocations are charged to the closest method of ours, the test itself excluded
+    private static String innermostOwnFrame(List<RecordedFrame> frames) {
+        for (RecordedFrame frame : frames) {
+            String type = frame.getMethod().getType().getName();
+            if (type.startsWith(PACKAGE) && !type.equals(DecodeAllocationTest.class.getName())) {
+                return type + "." + frame.getMethod().getName();
+            }
+        }
+        return null;
+    }
+}
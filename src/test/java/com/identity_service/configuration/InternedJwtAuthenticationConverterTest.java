@@ -0,0 +1,121 @@
+package com.identity_service.configuration;
+
+import com.identity_service.service.CompactScope;
+import com.identity_service.service.PermissionDictionaryService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class InternedJwtAuthenticationConverterTest {
+    private PermissionDictionaryService permissionDictionaryService;
+    private ScopeAuthoritiesConverter scopeAuthoritiesConverter;
+    private InternedJwtAuthenticationConverter converter;
+
+    @BeforeEach
+    void initData() {
+        permissionDictionaryService = Mockito.mock(PermissionDictionaryService.class);
+        scopeAuthoritiesConverter = Mockito.spy(new ScopeAuthoritiesConverter(permissionDictionaryService));
+        converter = new InternedJwtAuthenticationConverter(scopeAuthoritiesConverter);
+        converter.AUTHORITY_CACHE_SIZE = 2;
+    }
+
+    @Test
+    void convert_sameScope_sharesAuthorities() {
+        Jwt first = jwt("ROLE_ADMIN APPROVE_POST");
+        Jwt second = jwt("ROLE_ADMIN APPROVE_POST");
+
+        var firstToken = (InternedJwtAuthenticationToken) converter.convert(first);
+        var secondToken = (InternedJwtAuthenticationToken) converter.convert(second);
+
+        assertThat(secondToken.getAuthorities()).isSameAs(firstToken.getAuthorities());
+        assertThat(names(secondToken.getAuthorities())).containsExactly("ROLE_ADMIN", "APPROVE_POST");
+        assertThat(secondToken.getName()).isEqualTo("walter");
+        verify(scopeAuthoritiesConverter, times(1)).convert(Mockito.any());
+    }
+
+    @Test
+    void convert_moreScopesThanCacheSize_cacheBounded() {
+        Jwt admin = jwt("ROLE_ADMIN");
+        var adminAuthorities = converter.convert(admin).getAuthorities();
+
+        converter.convert(jwt("ROLE_USER"));
+        // the cache is full: this miss clears it
+        converter.convert(jwt("ROLE_EDITOR"));
+
+        assertThat(converter.convert(admin).getAuthorities())
+                .isNotSameAs(adminAuthorities)
+                .isEqualTo(adminAuthorities);
+        verify(scopeAuthoritiesConverter, times(2)).convert(admin);
+    }
+
+    @Test
+    void convert_compactScope_sharesAuthoritiesPerVersion() {
+        CompactScope dictionary = CompactScope.of(List.of("ROLE_ADMIN", "APPROVE_POST", "DELETE_POST"));
+        when(permissionDictionaryService.find(dictionary.getVersion())).thenReturn(Optional.of(dictionary));
+        String perms = dictionary.encode(List.of("ROLE_ADMIN", "DELETE_POST"), new ArrayList<>());
+
+        var first = converter.convert(compactJwt(perms, dictionary.getVersion()));
+        var second = converter.convert(compactJwt(perms, dictionary.getVersion()));
+
+        assertThat(second.getAuthorities()).isSameAs(first.getAuthorities());
+        assertThat(names(second.getAuthorities())).containsExactlyInAnyOrder("ROLE_ADMIN", "DELETE_POST");
+    }
+
+    @Test
+    void convert_serializedToken_authoritiesSurvive() throws Exception {
+        var token = (InternedJwtAuthenticationToken) converter.convert(jwt("ROLE_ADMIN APPROVE_POST"));
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(token);
+        }
+
+        InternedJwtAuthenticationToken restored;
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            restored = (InternedJwtAuthenticationToken) in.readObject();
+        }
+
+        assertThat(names(restored.getAuthorities())).containsExactly("ROLE_ADMIN", "APPROVE_POST");
+        assertThat(restored.hasAuthority("APPROVE_POST")).isTrue();
+        assertThat(restored.getToken().getSubject()).isEqualTo("walter");
+    }
+
+    private static Jwt jwt(String scope) {
+        return Jwt.withTokenValue("token")
+                .header("alg", "HS512")
+                .subject("walter")
+                .issuedAt(Instant.now())
+                .claim(ScopeAuthoritiesConverter.SCOPE_CLAIM, scope)
+                .build();
+    }
+
+    private static Jwt compactJwt(String perms, String version) {
+        return Jwt.withTokenValue("token")
+                .header("alg", "HS512")
+                .subject("walter")
+                .claim(ScopeAuthoritiesConverter.COMPACT_SCOPE_CLAIM, perms)
+                .claim(ScopeAuthoritiesConverter.COMPACT_SCOPE_VERSION_CLAIM, version)
+                .build();
+    }
+
+    private static List<String> names(Collection<? extends GrantedAuthority> authorities) {
+        return authorities.stream().map(GrantedAuthority::getAuthority).toList();
+    }
+}
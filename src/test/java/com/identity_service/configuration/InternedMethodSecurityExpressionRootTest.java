@@ -0,0 +1,83 @@
+package com.identity_service.configuration;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.security.access.expression.method.MethodSecurityExpressionOperations;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.oauth2.jwt.Jwt;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class InternedMethodSecurityExpressionRootTest {
+
+    @Test
+    void hasRole_withAndWithoutPrefix_granted() {
+        var root = root(internedToken("ROLE_ADMIN", "APPROVE_POST"));
+
+        assertThat(root.hasRole("ADMIN")).isTrue();
+        assertThat(root.hasRole("ROLE_ADMIN")).isTrue();
+        assertThat(root.hasRole("USER")).isFalse();
+        assertThat(root.hasAnyRole("USER", "ADMIN")).isTrue();
+    }
+
+    @Test
+    void hasAuthority_exactName_granted() {
+        var root = root(internedToken("ROLE_ADMIN", "APPROVE_POST"));
+
+        assertThat(root.hasAuthority("APPROVE_POST")).isTrue();
+        assertThat(root.hasAuthority("ROLE_ADMIN")).isTrue();
+        // authorities are never prefixed
+        assertThat(root.hasAuthority("ADMIN")).isFalse();
+        assertThat(root.hasAnyAuthority("DELETE_POST", "APPROVE_POST")).isTrue();
+    }
+
+    @Test
+    void hasRole_otherAuthentication_delegated() {
+        var authentication = new UsernamePasswordAuthenticationToken("walter", null,
+                AuthorityUtils.createAuthorityList("ROLE_ADMIN"));
+        var delegate = delegate(authentication);
+        when(delegate.hasRole("ADMIN")).thenReturn(true);
+
+        var root = new InternedMethodSecurityExpressionRoot(delegate);
+
+        assertThat(root.hasRole("ADMIN")).isTrue();
+        verify(delegate).hasRole("ADMIN");
+    }
+
+    @Test
+    void isUser_uidClaim_matchesOnlyOwnId() {
+        var root = root(internedToken("ROLE_USER"));
+
+        assertThat(root.isUser("cf0600f538b3")).isTrue();
+        assertThat(root.isUser("a1b2c3d4e5f6")).isFalse();
+        assertThat(root.isUser(null)).isFalse();
+    }
+
+    private static InternedMethodSecurityExpressionRoot root(InternedJwtAuthenticationToken token) {
+        return new InternedMethodSecurityExpressionRoot(delegate(token));
+    }
+
+    private static MethodSecurityExpressionOperations delegate(Authentication authentication) {
+        var delegate = Mockito.mock(MethodSecurityExpressionOperations.class);
+        when(delegate.getAuthentication()).thenReturn(authentication);
+        return delegate;
+    }
+
+    private static InternedJwtAuthenticationToken internedToken(String... authorities) {
+        Jwt jwt = Jwt.withTokenValue("token")
+                .header("alg", "HS512")
+                .subject("walter")
+                .claim(InternedMethodSecurityExpressionRoot.USER_ID_CLAIM, "cf0600f538b3")
+                .build();
+
+        List<GrantedAuthority> granted = AuthorityUtils.createAuthorityList(authorities);
+        return new InternedJwtAuthenticationToken(jwt, new InternedAuthorities(granted));
+    }
+}
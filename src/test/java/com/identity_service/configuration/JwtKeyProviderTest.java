@@ -0,0 +1,100 @@
+package com.identity_service.configuration;
+
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class JwtKeyProviderTest {
+    private static final String SIGNER_KEY = "SLHLfWZMSj23g64t76GxuyaJAJskUCeyrMLSRDyM6bghzKGp5Pp9m0KloQD3riWU";
+
+    @Test
+    void rs256_signAndVerify_roundTrip() throws Exception {
+        JwtKeyProvider provider = provider("RS256");
+        SignedJWT jwt = sign(provider, provider.createHeader());
+
+        assertThat(jwt.verify(provider.getVerifier())).isTrue();
+        assertThat(provider.createJwtDecoder().decode(jwt.serialize()).getSubject()).isEqualTo("walter");
+    }
+
+    @Test
+    void es256_signAndVerify_roundTrip() throws Exception {
+        JwtKeyProvider provider = provider("ES256");
+        SignedJWT jwt = sign(provider, provider.createHeader());
+
+        assertThat(jwt.verify(provider.getVerifier())).isTrue();
+        assertThat(provider.createJwtDecoder().decode(jwt.serialize()).getSubject()).isEqualTo("walter");
+    }
+
+    @Test
+    void decode_otherAlgorithmThanConfigured_rejected() throws Exception {
+        JwtKeyProvider rsa = provider("RS256");
+        JwtKeyProvider ec = provider("ES256");
+        JwtKeyProvider hmac = provider("HS512");
+
+        String ecToken = sign(ec, ec.createHeader()).serialize();
+        String hmacToken = sign(hmac, hmac.createHeader()).serialize();
+
+        assertThrows(JwtException.class, () -> rsa.createJwtDecoder().decode(ecToken));
+        assertThrows(JwtException.class, () -> rsa.createJwtDecoder().decode(hmacToken));
+        assertThrows(JwtException.class, () -> hmac.createJwtDecoder().decode(ecToken));
+    }
+
+    @Test
+    void getPublicJwkSet_rsa_onlyPublicParameters() throws Exception {
+        Map<String, Object> key = onlyKey(provider("RS256"));
+
+        assertThat(key).containsKeys("kty", "kid", "n", "e");
+        assertThat(key).doesNotContainKeys("d", "p", "q", "dp", "dq", "qi");
+    }
+
+    @Test
+    void getPublicJwkSet_ec_onlyPublicParameters() throws Exception {
+        Map<String, Object> key = onlyKey(provider("ES256"));
+
+        assertThat(key).containsKeys("kty", "kid", "crv", "x", "y");
+        assertThat(key).doesNotContainKeys("d");
+    }
+
+    @Test
+    void getPublicJwkSet_hmac_empty() throws Exception {
+        assertThat((List<?>) provider("HS512").getPublicJwkSet().get("keys")).isEmpty();
+    }
+
+    private static JwtKeyProvider provider(String algorithm) throws Exception {
+        JwtKeyProvider provider = new JwtKeyProvider();
+        ReflectionTestUtils.setField(provider, "SIGNER_KEY", SIGNER_KEY);
+        ReflectionTestUtils.setField(provider, "SIGNING_ALGORITHM", algorithm);
+        ReflectionTestUtils.setField(provider, "KEY_SET_LOCATION", "");
+        provider.init();
+        return provider;
+    }
+
+    private static SignedJWT sign(JwtKeyProvider provider, JWSHeader header) throws Exception {
+        SignedJWT jwt = new SignedJWT(header, new JWTClaimsSet.Builder()
+                .subject("walter")
+                .issuer("mq")
+                .issueTime(new Date())
+                .expirationTime(Date.from(Instant.now().plusSeconds(60)))
+                .build());
+        jwt.sign(provider.getSigner());
+        return jwt;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> onlyKey(JwtKeyProvider provider) {
+        List<Map<String, Object>> keys = (List<Map<String, Object>>) provider.getPublicJwkSet().get("keys");
+        assertThat(keys).hasSize(1);
+        return keys.getFirst();
+    }
+}
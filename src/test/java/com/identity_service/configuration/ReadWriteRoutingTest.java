@@ -0,0 +1,126 @@
+package com.identity_service.configuration;
+
+import com.identity_service.dto.request.RoleRequest;
+import com.identity_service.dto.response.RoleResponse;
+import com.identity_service.service.RoleService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// primary and replica are two separate embedded databases, so the data read tells which one served it
+@SpringBootTest
+@TestPropertySource(locations = "/test.properties", properties = {
+        "spring.datasource.url=jdbc:h2:mem:primary;MODE=MYSQL;NON_KEYWORDS=USER;DB_CLOSE_DELAY=-1",
+        "spring.datasource.replica.url=" + ReadWriteRoutingTest.REPLICA_URL,
+        "spring.datasource.replica.username=sa",
+        "spring.datasource.replica.password=sa",
+        "spring.datasource.replica.driverClassName=org.h2.Driver",
+        "spring.datasource.replica.write-stickiness=" + ReadWriteRoutingTest.WRITE_STICKINESS
+})
+public class ReadWriteRoutingTest {
+    static final String REPLICA_URL = "jdbc:h2:mem:replica;MODE=MYSQL;NON_KEYWORDS=USER;DB_CLOSE_DELAY=-1;"
+            + "INIT=RUNSCRIPT FROM 'classpath:db/migration/h2/V1__baseline.sql'"
+            + "\\;RUNSCRIPT FROM 'classpath:db/migration/h2/V2__token_epoch_and_revocation_feed.sql'"
+            + "\\;RUNSCRIPT FROM 'classpath:db/migration/h2/V6__role_inherits.sql'";
+    static final long WRITE_STICKINESS = 300;
+
+    @Autowired
+    private RoleService roleService;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private JdbcTemplate replica;
+
+    @BeforeEach
+    void initData() {
+        replica = new JdbcTemplate(new DriverManagerDataSource(REPLICA_URL, "sa", "sa"));
+        replica.update("merge into role (name, description) key (name) values ('REPLICA_ONLY', 'replica')");
+    }
+
+    @Test
+    void getAll_noRecentWrite_readsReplica() throws InterruptedException {
+        Thread.sleep(WRITE_STICKINESS + 50);
+
+        var roles = roleService.getAll();
+
+        assertThat(roles).extracting(RoleResponse::getName).contains("REPLICA_ONLY");
+    }
+
+    @AfterEach
+    void clearAuthentication() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @WithMockUser(username = "admin")
+    void getAll_rightAfterOwnWrite_readsPrimary() {
+        roleService.create(RoleRequest.builder()
+                .name("PRIMARY_ONLY")
+                .permissions(Set.of())
+                .build());
+
+        var roles = roleService.getAll();
+
+        assertThat(roles).extracting(RoleResponse::getName)
+                .contains("PRIMARY_ONLY")
+                .doesNotContain("REPLICA_ONLY");
+    }
+
+    @Test
+    void getAll_rightAfterOtherCallersWrite_readsReplica() throws InterruptedException {
+        Thread.sleep(WRITE_STICKINESS + 50);
+        writeAs("walter");
+
+        authenticateAs("jesse");
+        assertThat(roleService.getAll()).extracting(RoleResponse::getName).contains("REPLICA_ONLY");
+
+        authenticateAs("walter");
+        assertThat(roleService.getAll()).extracting(RoleResponse::getName).doesNotContain("REPLICA_ONLY");
+    }
+
+    @Test
+    void getAll_afterAnonymousWrite_readsReplica() throws InterruptedException {
+        Thread.sleep(WRITE_STICKINESS + 50);
+        // a login or a signup
+        writeAs(null);
+
+        authenticateAs("walter");
+        assertThat(roleService.getAll()).extracting(RoleResponse::getName).contains("REPLICA_ONLY");
+    }
+
+    private void writeAs(String username) {
+        if (username == null) {
+            SecurityContextHolder.clearContext();
+        } else {
+            authenticateAs(username);
+        }
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                new JdbcTemplate(dataSource).update("update role set description = description where name = 'USER'"));
+    }
+
+    private static void authenticateAs(String username) {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(username, null, List.of()));
+    }
+}
@@ -0,0 +1,84 @@
+package com.identity_service.configuration;
+
+import com.identity_service.service.CompactScope;
+import com.identity_service.service.PermissionDictionaryService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+public class ScopeAuthoritiesConverterTest {
+    private static final List<String> AUTHORITIES = List.of("ROLE_ADMIN", "APPROVE_POST", "DELETE_POST");
+
+    private CompactScope dictionary;
+    private ScopeAuthoritiesConverter converter;
+
+    @BeforeEach
+    void initData() {
+        dictionary = CompactScope.of(List.of("ROLE_ADMIN", "ROLE_USER", "APPROVE_POST", "DELETE_POST"));
+
+        PermissionDictionaryService permissionDictionaryService = Mockito.mock(PermissionDictionaryService.class);
+        when(permissionDictionaryService.find(anyString())).thenReturn(Optional.empty());
+        when(permissionDictionaryService.find(dictionary.getVersion())).thenReturn(Optional.of(dictionary));
+
+        converter = new ScopeAuthoritiesConverter(permissionDictionaryService);
+    }
+
+    @Test
+    void convert_compactScope_sameAuthoritiesAsPlainScope() {
+        Jwt plain = jwt(String.join(" ", AUTHORITIES), null, null);
+        Jwt compact = jwt(null, dictionary.encode(AUTHORITIES, new ArrayList<>()), dictionary.getVersion());
+
+        assertThat(names(converter.convert(compact)))
+                .containsExactlyInAnyOrderElementsOf(names(converter.convert(plain)));
+    }
+
+    @Test
+    void convert_compactScopeWithLeftovers_sameAuthoritiesAsPlainScope() {
+        List<String> authorities = List.of("ROLE_ADMIN", "APPROVE_POST", "PUBLISH_POST");
+        List<String> leftovers = new ArrayList<>();
+        String perms = dictionary.encode(authorities, leftovers);
+
+        Jwt plain = jwt(String.join(" ", authorities), null, null);
+        Jwt compact = jwt(String.join(" ", leftovers), perms, dictionary.getVersion());
+
+        assertThat(leftovers).containsExactly("PUBLISH_POST");
+        assertThat(names(converter.convert(compact)))
+                .containsExactlyInAnyOrderElementsOf(names(converter.convert(plain)));
+    }
+
+    @Test
+    void convert_unknownVersion_onlyPlainScope() {
+        Jwt compact = jwt("PUBLISH_POST", dictionary.encode(AUTHORITIES, new ArrayList<>()), "unknown-version");
+
+        assertThat(names(converter.convert(compact))).containsExactly("PUBLISH_POST");
+    }
+
+    private static Jwt jwt(String scope, String perms, String version) {
+        Jwt.Builder builder = Jwt.withTokenValue("token")
+                .header("alg", "HS512")
+                .subject("walter");
+        if (scope != null) {
+            builder.claim(ScopeAuthoritiesConverter.SCOPE_CLAIM, scope);
+        }
+        if (perms != null) {
+            builder.claim(ScopeAuthoritiesConverter.COMPACT_SCOPE_CLAIM, perms)
+                    .claim(ScopeAuthoritiesConverter.COMPACT_SCOPE_VERSION_CLAIM, version);
+        }
+        return builder.build();
+    }
+
+    private static List<String> names(Collection<GrantedAuthority> authorities) {
+        return authorities.stream().map(GrantedAuthority::getAuthority).toList();
+    }
+}
@@ -0,0 +1,84 @@
+package com.identity_service.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.identity_service.dto.request.AuthorizationCheck;
+import com.identity_service.dto.request.AuthorizationRequest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import java.util.Collections;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@TestPropertySource("/test.properties")
+public class AuthenticationControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void authorize_unauthenticated_unauthorized() throws Exception {
+        authorize(1)
+                .andExpect(MockMvcResultMatchers.status().isUnauthorized());
+    }
+
+    @Test
+    @WithMockUser(username = "walter", roles = "USER")
+    void authorize_regularUser_forbidden() throws Exception {
+        authorize(1)
+                .andExpect(MockMvcResultMatchers.status().isForbidden())
+                .andExpect(MockMvcResultMatchers.jsonPath("code").value(1003));
+    }
+
+    @Test
+    @WithMockUser(username = "admin", roles = "ADMIN")
+    void authorize_admin_success() throws Exception {
+        authorize(2)
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("code").value(1000))
+                .andExpect(MockMvcResultMatchers.jsonPath("result.decisions.length()").value(2));
+    }
+
+    @Test
+    @WithMockUser(username = "orders-service", authorities = "AUTHORIZATION_CHECK")
+    void authorize_serviceAuthority_success() throws Exception {
+        authorize(1)
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("result.decisions[0]").value(false));
+    }
+
+    @Test
+    @WithMockUser(username = "admin", roles = "ADMIN")
+    void authorize_batchOverLimit_fail() throws Exception {
+        authorize(1001)
+                .andExpect(MockMvcResultMatchers.status().isBadRequest())
+                .andExpect(MockMvcResultMatchers.jsonPath("code").value(1005))
+                .andExpect(MockMvcResultMatchers.jsonPath("message")
+                        .value("Authorization batch must hold at most 1000 checks!"));
+    }
+
+    private ResultActions authorize(int checks) throws Exception {
+        AuthorizationRequest request = AuthorizationRequest.builder()
+                .checks(Collections.nCopies(checks, AuthorizationCheck.builder()
+                        .subject("unknown")
+                        .permission("APPROVE_POST")
+                        .build()))
+                .build();
+
+        return mockMvc.perform(MockMvcRequestBuilders
+                .post("/auth/authorize")
+                .contentType(MediaType.APPLICATION_JSON_VALUE)
+                .content(objectMapper.writeValueAsString(request)));
+    }
+}
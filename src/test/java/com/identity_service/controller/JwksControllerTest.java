@@ -0,0 +1,60 @@
+package com.identity_service.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@TestPropertySource(locations = "/test.properties", properties = {
+        "jwt.signing-algorithm=RS256",
+        "jwt.jwks-max-age=600"
+})
+public class JwksControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void getJwks_anonymous_publicKeyOnly() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get("/.well-known/jwks.json"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.CACHE_CONTROL, "max-age=600, public"))
+                .andExpect(MockMvcResultMatchers.header().exists(HttpHeaders.ETAG))
+                .andExpect(MockMvcResultMatchers.jsonPath("keys.length()").value(1))
+                .andExpect(MockMvcResultMatchers.jsonPath("keys[0].kty").value("RSA"))
+                .andExpect(MockMvcResultMatchers.jsonPath("keys[0].n").exists())
+                .andExpect(MockMvcResultMatchers.jsonPath("keys[0].d").doesNotExist())
+                .andExpect(MockMvcResultMatchers.jsonPath("keys[0].p").doesNotExist())
+                .andExpect(MockMvcResultMatchers.jsonPath("keys[0].q").doesNotExist());
+    }
+
+    @Test
+    void getJwks_matchingETag_notModified() throws Exception {
+        String eTag = mockMvc.perform(MockMvcRequestBuilders.get("/.well-known/jwks.json"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(eTag).isNotBlank();
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/.well-known/jwks.json")
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(MockMvcResultMatchers.status().isNotModified())
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.ETAG, eTag))
+                .andExpect(MockMvcResultMatchers.content().string(""));
+    }
+
+    @Test
+    void getJwks_staleETag_fullBody() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get("/.well-known/jwks.json")
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"stale\""))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("keys[0].kid").exists());
+    }
+}
@@ -0,0 +1,77 @@
+package com.identity_service.controller;
+
+import com.identity_service.loadtest.AuthLoadClient;
+import com.identity_service.service.LoginAdmissionController;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// a login surge on a small servlet thread pool: queued logins must not take every thread
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@TestPropertySource(locations = "/test.properties", properties = {
+        "server.tomcat.threads.max=" + LoginAdmissionIsolationTest.SERVLET_THREADS,
+        "login.admission.max-concurrency=1",
+        "login.admission.max-queue=256",
+        "login.admission.target-delay=60000",
+        "login.admission.max-wait=" + LoginAdmissionIsolationTest.MAX_WAIT})
+public class LoginAdmissionIsolationTest {
+    static final int SERVLET_THREADS = 8;
+    static final long MAX_WAIT = 10000;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private LoginAdmissionController loginAdmissionController;
+
+    @Test
+    void login_queuedLogins_restOfApiReachable() throws Exception {
+        var client = new AuthLoadClient("http://localhost:" + port + "/identity");
+        assertThat(client.createUser("isolated", "12345678")).isTrue();
+        String token = client.login("isolated", "12345678");
+        assertThat(loginAdmissionController.getMaxQueue()).isLessThan(SERVLET_THREADS);
+
+        // the only permit is taken: every login queues or is shed
+        loginAdmissionController.acquire();
+        long rejectedBefore = loginAdmissionController.getRejected();
+        List<Future<String>> logins = new ArrayList<>();
+        try (ExecutorService requests = Executors.newVirtualThreadPerTaskExecutor()) {
+            try {
+                for (int i = 0; i < SERVLET_THREADS; i++) {
+                    logins.add(requests.submit(() -> client.login("isolated", "12345678")));
+                }
+
+                long shed = SERVLET_THREADS - loginAdmissionController.getMaxQueue();
+                while (loginAdmissionController.getRejected() - rejectedBefore < shed) {
+                    Thread.sleep(10);
+                }
+
+                // with a queue as long as the thread pool this waits for max-wait
+                long start = System.currentTimeMillis();
+                assertThat(client.introspect(token)).isTrue();
+                assertThat(System.currentTimeMillis() - start)
+                        .as("ms to introspect while logins are queued")
+                        .isLessThan(MAX_WAIT / 4);
+            } finally {
+                loginAdmissionController.release();
+            }
+
+            int admitted = 0;
+            for (Future<String> login : logins) {
+                admitted += Objects.isNull(login.get()) ? 0 : 1;
+            }
+            assertThat(admitted).isEqualTo(loginAdmissionController.getMaxQueue());
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.identity_service.controller;
+
+import com.identity_service.repository.PermissionRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import java.util.List;
+
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@TestPropertySource("/test.properties")
+public class PermissionControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private PermissionRepository permissionRepository;
+
+    @Test
+    @WithMockUser(username = "admin", roles = "ADMIN")
+    void getAll_matchingIfNoneMatch_notModifiedWithoutQuery() throws Exception {
+        when(permissionRepository.findAll()).thenReturn(List.of());
+
+        String eTag = mockMvc.perform(MockMvcRequestBuilders.get("/permissions"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.header().exists(HttpHeaders.ETAG))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/permissions").header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(MockMvcResultMatchers.status().isNotModified());
+
+        verify(permissionRepository, times(1)).findAll();
+    }
+
+    @Test
+    @WithMockUser(username = "admin", roles = "ADMIN")
+    void getAll_staleIfNoneMatch_fullBody() throws Exception {
+        when(permissionRepository.findAll()).thenReturn(List.of());
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/permissions").header(HttpHeaders.IF_NONE_MATCH, "\"rbac-stale\""))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("code").value(1000));
+    }
+}
@@ -3,7 +3,10 @@ package com.identity_service.controller;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.identity_service.dto.request.UserCreationRequest;
+import com.identity_service.dto.request.UserPatchRequest;
 import com.identity_service.dto.response.UserResponse;
+import com.identity_service.enums.ErrorCode;
+import com.identity_service.exception.AppException;
 import com.identity_service.service.UserService;
 import lombok.extern.slf4j.Slf4j;
 import org.junit.jupiter.api.BeforeEach;
@@ -15,6 +18,7 @@ import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMock
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
@@ -114,4 +118,22 @@ public class UserControllerTest {
                         .value("Username must be at least 3 characters!"));
     }
 
+    @Test
+    @WithMockUser(username = "walter")
+    void patchUser_staleVersion_conflict() throws Exception {
+        String requestContent = new ObjectMapper().writeValueAsString(UserPatchRequest.builder()
+                .lastName("Heisenberg")
+                .version(4L)
+                .build());
+
+        Mockito.when(userService.patchUser(ArgumentMatchers.anyString(), ArgumentMatchers.any()))
+                .thenThrow(new AppException(ErrorCode.USER_VERSION_CONFLICT));
+
+        mockMvc.perform(MockMvcRequestBuilders
+                        .patch("/users/cf0600f538b3")
+                        .contentType(MediaType.APPLICATION_JSON_VALUE)
+                        .content(requestContent))
+                .andExpect(MockMvcResultMatchers.status().isConflict())
+                .andExpect(MockMvcResultMatchers.jsonPath("code").value(1004));
+    }
 }
@@ -0,0 +1,105 @@
+package com.identity_service.controller;
+
+import com.identity_service.loadtest.AuthLoadClient;
+import jakarta.servlet.Filter;
+import org.apache.tomcat.util.threads.VirtualThreadExecutor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.boot.web.embedded.tomcat.TomcatWebServer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// the virtual-threads profile against the embedded H2 database
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("virtual-threads")
+@TestPropertySource(locations = "/test.properties", properties = "server.tomcat.threads.max=" + VirtualThreadModeTest.PLATFORM_THREADS)
+public class VirtualThreadModeTest {
+    static final int PLATFORM_THREADS = 50;
+    private static final int CONCURRENT_REQUESTS = 500;
+    private static final long HOLD_MS = 1000;
+
+    private static final AtomicInteger inFlight = new AtomicInteger();
+    private static final AtomicInteger peakInFlight = new AtomicInteger();
+    private static final AtomicBoolean platformThreadSeen = new AtomicBoolean();
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ServletWebServerApplicationContext context;
+
+    // holds every introspect request, as a slow downstream call would, and records how many overlap
+    @TestConfiguration
+    static class HoldingFilterConfig {
+        @Bean
+        FilterRegistrationBean<Filter> holdingFilter() {
+            FilterRegistrationBean<Filter> registration = new FilterRegistrationBean<>((request, response, chain) -> {
+                if (!Thread.currentThread().isVirtual()) {
+                    platformThreadSeen.set(true);
+                }
+
+                peakInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                try {
+                    Thread.sleep(HOLD_MS);
+                    chain.doFilter(request, response);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    inFlight.decrementAndGet();
+                }
+            });
+            registration.addUrlPatterns("/auth/introspect");
+            return registration;
+        }
+    }
+
+    @Test
+    void introspect_virtualThreads_blockedRequestsDoNotHoldPlatformThreads() throws Exception {
+        var executor = ((TomcatWebServer) context.getWebServer()).getTomcat()
+                .getConnector().getProtocolHandler().getExecutor();
+        assertThat(executor).isInstanceOf(VirtualThreadExecutor.class);
+
+        var client = new AuthLoadClient("http://localhost:" + port + "/identity");
+        assertThat(client.createUser("virtual", "12345678")).isTrue();
+        String token = client.login("virtual", "12345678");
+
+        long start = System.currentTimeMillis();
+        List<Future<Boolean>> results = new ArrayList<>();
+        try (ExecutorService requests = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < CONCURRENT_REQUESTS; i++) {
+                results.add(requests.submit(() -> client.introspect(token)));
+            }
+
+            for (Future<Boolean> result : results) {
+                assertThat(result.get()).isTrue();
+            }
+        }
+        long elapsed = System.currentTimeMillis() - start;
+
+        assertThat(platformThreadSeen).isFalse();
+        // a pool of PLATFORM_THREADS platform threads caps this at PLATFORM_THREADS and needs
+        // CONCURRENT_REQUESTS / PLATFORM_THREADS rounds of HOLD_MS
+        assertThat(peakInFlight.get())
+                .as("requests blocked at the same time")
+                .isGreaterThan(PLATFORM_THREADS);
+        assertThat(elapsed)
+                .as("ms for %d requests held %d ms each", CONCURRENT_REQUESTS, HOLD_MS)
+                .isLessThan(CONCURRENT_REQUESTS / PLATFORM_THREADS * HOLD_MS / 2);
+    }
+}
@@ -0,0 +1,91 @@
+package com.identity_service.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Thin blocking HTTP client for the auth endpoints, shared by all load workers.
+ */
+public class AuthLoadClient {
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final String baseUrl;
+
+    public AuthLoadClient(String baseUrl) {
+        this.baseUrl = baseUrl;
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+    }
+
+    public boolean createUser(String username, String password) throws IOException, InterruptedException {
+        var response = post("/users", Map.of("username", username, "password", password), null);
+        return response.statusCode() == 200;
+    }
+
+    // returns the issued token, or null when the call failed
+    public String login(String username, String password) throws IOException, InterruptedException {
+        var response = post("/auth/login", Map.of("username", username, "password", password), null);
+        return readToken(response);
+    }
+
+    public boolean introspect(String token) throws IOException, InterruptedException {
+        var response = post("/auth/introspect", Map.of("token", token), null);
+        if (response.statusCode() != 200) {
+            return false;
+        }
+        return objectMapper.readTree(response.body()).path("result").path("valid").asBoolean(false);
+    }
+
+    public String refresh(String token) throws IOException, InterruptedException {
+        var response = post("/auth/refresh", Map.of("token", token), null);
+        return readToken(response);
+    }
+
+    public boolean logout(String token) throws IOException, InterruptedException {
+        var response = post("/auth/logout", Map.of("token", token), null);
+        return response.statusCode() == 200;
+    }
+
+    public boolean myInfo(String token) throws IOException, InterruptedException {
+        var request = HttpRequest.newBuilder(URI.create(baseUrl + "/users/myInfo"))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Authorization", "Bearer " + token)
+                .GET()
+                .build();
+        var response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        return response.statusCode() == 200;
+    }
+
+    private HttpResponse<String> post(String path, Object body, String token) throws IOException, InterruptedException {
+        var builder = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body)));
+
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+
+        return httpClient.send(builder.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private String readToken(HttpResponse<String> response) throws IOException {
+        if (response.statusCode() != 200) {
+            return null;
+        }
+        JsonNode token = objectMapper.readTree(response.body()).path("result").path("token");
+        return token.isTextual() ? token.asText() : null;
+    }
+}
@@ -0,0 +1,65 @@
+package com.identity_service.loadtest;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.TestPropertySource;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * End-to-end load test of the auth endpoints against an embedded H2 database.
+ * <p>
+ * Run with {@code mvn -Pperf test -Dtest=AuthLoadTest}; tune with the system properties
+ * {@code loadtest.threads}, {@code loadtest.users}, {@code loadtest.warmup}, {@code loadtest.duration}
+ * (seconds), {@code loadtest.mix} and {@code loadtest.max-error-rate}.
+ * The report is logged and written to {@code target/loadtest-report.txt}.
+ */
+@Slf4j
+@Tag("load")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@TestPropertySource("/loadtest.properties")
+public class AuthLoadTest {
+    private static final String PASSWORD = "load-test-password";
+    private static final String DEFAULT_MIX = "login=5,introspect=50,refresh=10,myInfo=30,logout=5";
+
+    @LocalServerPort
+    private int port;
+
+    @Test
+    void authWorkload_mixedOperations_reportsPercentiles() throws Exception {
+        int threads = Integer.getInteger("loadtest.threads", 16);
+        int users = Integer.getInteger("loadtest.users", threads);
+        var warmup = Duration.ofSeconds(Long.getLong("loadtest.warmup", 5L));
+        var duration = Duration.ofSeconds(Long.getLong("loadtest.duration", 20L));
+        var mix = WorkloadMix.parse(System.getProperty("loadtest.mix", DEFAULT_MIX));
+        double maxErrorRate = Double.parseDouble(System.getProperty("loadtest.max-error-rate", "0.01"));
+
+        var client = new AuthLoadClient("http://localhost:" + port + "/identity");
+
+        List<String> usernames = new ArrayList<>();
+        for (int i = 0; i < users; i++) {
+            String username = "load-user-" + i;
+            assertThat(client.createUser(username, PASSWORD)).isTrue();
+            usernames.add(username);
+        }
+
+        var report = new LoadTestRunner(client, mix, usernames, PASSWORD, threads, warmup, duration).run();
+
+        String formatted = report.format();
+        log.warn("Load test report:\n{}", formatted);
+        Files.createDirectories(Path.of("target"));
+        Files.writeString(Path.of("target", "loadtest-report.txt"), formatted);
+
+        assertThat(report.getTotalCount()).isPositive();
+        assertThat(report.getErrorRate()).isLessThanOrEqualTo(maxErrorRate);
+    }
+}
@@ -0,0 +1,29 @@
+package com.identity_service.loadtest;
+
+public enum AuthOperation {
+    LOGIN("login"),
+    INTROSPECT("introspect"),
+    REFRESH("refresh"),
+    MY_INFO("myInfo"),
+    LOGOUT("logout"),
+    ;
+
+    private final String key;
+
+    AuthOperation(String key) {
+        this.key = key;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public static AuthOperation fromKey(String key) {
+        for (AuthOperation operation : values()) {
+            if (operation.key.equalsIgnoreCase(key)) {
+                return operation;
+            }
+        }
+        throw new IllegalArgumentException("Unknown operation: " + key);
+    }
+}
@@ -0,0 +1,83 @@
+package com.identity_service.loadtest;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Aggregated per-operation latency percentiles, throughput and error counts of one load run.
+ */
+public class LoadTestReport {
+    private final WorkloadMix mix;
+    private final int threads;
+    private final Duration duration;
+    private final Map<AuthOperation, LatencyHistogram> histograms = new EnumMap<>(AuthOperation.class);
+    private final Map<AuthOperation, Long> errors = new EnumMap<>(AuthOperation.class);
+
+    public LoadTestReport(WorkloadMix mix, int threads, Duration duration) {
+        this.mix = mix;
+        this.threads = threads;
+        this.duration = duration;
+    }
+
+    void merge(AuthOperation operation, LatencyHistogram histogram) {
+        histograms.computeIfAbsent(operation, key -> new LatencyHistogram()).merge(histogram);
+    }
+
+    void addErrors(AuthOperation operation, long count) {
+        errors.merge(operation, count, Long::sum);
+    }
+
+    public long getTotalCount() {
+        return histograms.values().stream().mapToLong(LatencyHistogram::getTotalCount).sum();
+    }
+
+    public long getTotalErrors() {
+        return errors.values().stream().mapToLong(Long::longValue).sum();
+    }
+
+    public double getErrorRate() {
+        long total = getTotalCount();
+        return total == 0 ? 0 : (double) getTotalErrors() / total;
+    }
+
+    public double getThroughput() {
+        return getTotalCount() / seconds();
+    }
+
+    public String format() {
+        StringBuilder builder = new StringBuilder();
+        builder.append(String.format("threads=%d duration=%ds mix=%s%n", threads, duration.toSeconds(), mix));
+        builder.append(String.format("%-12s %10s %8s %10s %10s %10s %10s %10s%n",
+                "operation", "count", "errors", "ops/s", "p50(ms)", "p95(ms)", "p99(ms)", "max(ms)"));
+
+        LatencyHistogram all = new LatencyHistogram();
+        histograms.forEach((operation, histogram) -> {
+            all.merge(histogram);
+            appendRow(builder, operation.getKey(), histogram, errors.getOrDefault(operation, 0L));
+        });
+        appendRow(builder, "total", all, getTotalErrors());
+
+        return builder.toString();
+    }
+
+    private void appendRow(StringBuilder builder, String name, LatencyHistogram histogram, long errorCount) {
+        builder.append(String.format("%-12s %10d %8d %10.1f %10.2f %10.2f %10.2f %10.2f%n",
+                name,
+                histogram.getTotalCount(),
+                errorCount,
+                histogram.getTotalCount() / seconds(),
+                millis(histogram.percentile(50)),
+                millis(histogram.percentile(95)),
+                millis(histogram.percentile(99)),
+                millis(histogram.getMaxValue())));
+    }
+
+    private double seconds() {
+        return Math.max(1, duration.toMillis()) / 1000.0;
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
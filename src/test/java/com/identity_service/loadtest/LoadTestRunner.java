@@ -0,0 +1,118 @@
+package com.identity_service.loadtest;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Drives a closed-loop workload: every worker owns one user session and issues operations
+ * picked from the {@link WorkloadMix} back to back. Latencies recorded during warmup are discarded.
+ */
+public class LoadTestRunner {
+    private final AuthLoadClient client;
+    private final WorkloadMix mix;
+    private final List<String> usernames;
+    private final String password;
+    private final int threads;
+    private final Duration warmup;
+    private final Duration duration;
+
+    public LoadTestRunner(AuthLoadClient client, WorkloadMix mix, List<String> usernames, String password,
+                          int threads, Duration warmup, Duration duration) {
+        this.client = client;
+        this.mix = mix;
+        this.usernames = usernames;
+        this.password = password;
+        this.threads = threads;
+        this.warmup = warmup;
+        this.duration = duration;
+    }
+
+    public LoadTestReport run() throws InterruptedException, ExecutionException {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            long measureFrom = System.nanoTime() + warmup.toNanos();
+            long measureUntil = measureFrom + duration.toNanos();
+
+            List<Future<Worker>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                var worker = new Worker(usernames.get(i % usernames.size()), measureFrom, measureUntil);
+                futures.add(executor.submit(() -> {
+                    worker.run();
+                    return worker;
+                }));
+            }
+
+            var report = new LoadTestReport(mix, threads, duration);
+            for (var future : futures) {
+                var worker = future.get();
+                worker.histograms.forEach(report::merge);
+                worker.errors.forEach(report::addErrors);
+            }
+            return report;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private class Worker {
+        final String username;
+        final long measureFrom;
+        final long measureUntil;
+        final Map<AuthOperation, LatencyHistogram> histograms = new EnumMap<>(AuthOperation.class);
+        final Map<AuthOperation, Long> errors = new EnumMap<>(AuthOperation.class);
+
+        String token;
+
+        Worker(String username, long measureFrom, long measureUntil) {
+            this.username = username;
+            this.measureFrom = measureFrom;
+            this.measureUntil = measureUntil;
+        }
+
+        void run() throws Exception {
+            var random = ThreadLocalRandom.current();
+            token = client.login(username, password);
+
+            long now;
+            while ((now = System.nanoTime()) < measureUntil) {
+                if (token == null) {
+                    execute(AuthOperation.LOGIN, now);
+                    continue;
+                }
+                execute(mix.pick(random), now);
+            }
+        }
+
+        private void execute(AuthOperation operation, long start) throws Exception {
+            boolean success = switch (operation) {
+                case LOGIN -> (token = client.login(username, password)) != null;
+                case INTROSPECT -> client.introspect(token);
+                case REFRESH -> (token = client.refresh(token)) != null;
+                case MY_INFO -> client.myInfo(token);
+                case LOGOUT -> {
+                    boolean loggedOut = client.logout(token);
+                    token = null;
+                    yield loggedOut;
+                }
+            };
+            long end = System.nanoTime();
+
+            if (start < measureFrom || end > measureUntil) {
+                return;
+            }
+
+            histograms.computeIfAbsent(operation, key -> new LatencyHistogram()).record(end - start);
+            if (!success) {
+                errors.merge(operation, 1L, Long::sum);
+            }
+        }
+    }
+}
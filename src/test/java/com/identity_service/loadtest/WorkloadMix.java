@@ -0,0 +1,75 @@
+package com.identity_service.loadtest;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.random.RandomGenerator;
+
+/**
+ * Weighted mix of auth operations, parsed from e.g. {@code login=5,introspect=60,refresh=10,myInfo=20,logout=5}.
+ */
+public class WorkloadMix {
+    private final AuthOperation[] operations;
+    private final int[] cumulativeWeights;
+    private final int totalWeight;
+
+    private WorkloadMix(Map<AuthOperation, Integer> weights) {
+        operations = new AuthOperation[weights.size()];
+        cumulativeWeights = new int[weights.size()];
+
+        int i = 0;
+        int sum = 0;
+        for (var entry : weights.entrySet()) {
+            sum += entry.getValue();
+            operations[i] = entry.getKey();
+            cumulativeWeights[i] = sum;
+            i++;
+        }
+        totalWeight = sum;
+
+        if (totalWeight <= 0) {
+            throw new IllegalArgumentException("Workload mix must have a positive total weight");
+        }
+    }
+
+    public static WorkloadMix parse(String spec) {
+        Map<AuthOperation, Integer> weights = new EnumMap<>(AuthOperation.class);
+
+        for (String part : spec.split(",")) {
+            String[] pair = part.trim().split("=");
+            if (pair.length != 2) {
+                throw new IllegalArgumentException("Invalid workload entry: " + part);
+            }
+
+            int weight = Integer.parseInt(pair[1].trim());
+            if (weight > 0) {
+                weights.put(AuthOperation.fromKey(pair[0].trim()), weight);
+            }
+        }
+
+        return new WorkloadMix(weights);
+    }
+
+    public AuthOperation pick(RandomGenerator random) {
+        int value = random.nextInt(totalWeight);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (value < cumulativeWeights[i]) {
+                return operations[i];
+            }
+        }
+        return operations[operations.length - 1];
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        int previous = 0;
+        for (int i = 0; i < operations.length; i++) {
+            if (i > 0) {
+                builder.append(',');
+            }
+            builder.append(operations[i].getKey()).append('=').append(cumulativeWeights[i] - previous);
+            previous = cumulativeWeights[i];
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,57 @@
+package com.identity_service.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.identity_service.dto.event.AuditEvent;
+import com.identity_service.enums.AuditAction;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class AuditLogWriterTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void writeBatch_overMaxFileSize_rotatesAndKeepsHistory() throws Exception {
+        AuditRingBuffer ringBuffer = new AuditRingBuffer(64);
+        AuditLogWriter writer = new AuditLogWriter(ringBuffer, new ObjectMapper().registerModule(new JavaTimeModule()),
+                () -> 0, directory, 16, 512, 2, 10);
+
+        // ~100 bytes per line, 4 lines per batch: every batch after the first rotates
+        for (int round = 0; round < 5; round++) {
+            for (int i = 0; i < 4; i++) {
+                ringBuffer.offer(AuditEvent.builder()
+                        .timestamp(Instant.now())
+                        .action(AuditAction.LOGIN_SUCCESS)
+                        .actor("walter")
+                        .target("walter-" + round + "-" + i)
+                        .build());
+            }
+            // rotations follow each other within the same millisecond
+            assertThat(writer.writeBatch()).isEqualTo(4);
+        }
+
+        List<String> active = Files.readAllLines(directory.resolve(AuditLogWriter.ACTIVE_FILE));
+        assertThat(active).hasSize(4);
+        assertThat(active.get(0)).contains("\"action\":\"LOGIN_SUCCESS\"", "\"target\":\"walter-4-0\"");
+
+        List<Path> rotated;
+        try (Stream<Path> files = Files.list(directory)) {
+            rotated = files.filter(file -> file.getFileName().toString().startsWith("audit-")).sorted().toList();
+        }
+
+        // the two newest rotations, none overwritten by another
+        assertThat(rotated).hasSize(2);
+        assertThat(Files.readString(rotated.get(0))).contains("walter-2-0").doesNotContain("walter-3-0");
+        assertThat(Files.readString(rotated.get(1))).contains("walter-3-0");
+    }
+}
@@ -0,0 +1,75 @@
+package com.identity_service.service;
+
+import com.identity_service.dto.event.AuditEvent;
+import com.identity_service.enums.AuditAction;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class AuditRingBufferTest {
+
+    @Test
+    void offer_full_rejectsUntilDrained() {
+        AuditRingBuffer ringBuffer = new AuditRingBuffer(4);
+
+        for (int i = 0; i < 4; i++) {
+            assertThat(ringBuffer.offer(event(i))).isTrue();
+        }
+        assertThat(ringBuffer.offer(event(4))).isFalse();
+
+        List<AuditEvent> batch = new ArrayList<>();
+        assertThat(ringBuffer.drainTo(batch, 2)).isEqualTo(2);
+        assertThat(batch).extracting(AuditEvent::getTarget).containsExactly("0", "1");
+        assertThat(ringBuffer.offer(event(5))).isTrue();
+    }
+
+    @Test
+    void offer_concurrentProducers_everyEventDrainedOnce() throws Exception {
+        int producers = 8;
+        int perProducer = 50_000;
+        AuditRingBuffer ringBuffer = new AuditRingBuffer(1024);
+        ExecutorService executor = Executors.newFixedThreadPool(producers);
+        CountDownLatch done = new CountDownLatch(producers);
+
+        for (int p = 0; p < producers; p++) {
+            int producer = p;
+            executor.submit(() -> {
+                for (int i = 0; i < perProducer; i++) {
+                    AuditEvent event = event(producer * perProducer + i);
+                    while (!ringBuffer.offer(event)) {
+                        Thread.onSpinWait();
+                    }
+                }
+                done.countDown();
+            });
+        }
+
+        Set<String> seen = new HashSet<>();
+        List<AuditEvent> batch = new ArrayList<>();
+        while (seen.size() < producers * perProducer) {
+            batch.clear();
+            ringBuffer.drainTo(batch, 256);
+            batch.forEach(event -> assertThat(seen.add(event.getTarget())).isTrue());
+        }
+
+        assertThat(done.await(10, TimeUnit.SECONDS)).isTrue();
+        executor.shutdown();
+        assertThat(ringBuffer.drainTo(batch, 1)).isZero();
+    }
+
+    private static AuditEvent event(int i) {
+        return AuditEvent.builder()
+                .action(AuditAction.LOGIN_SUCCESS)
+                .target(String.valueOf(i))
+                .build();
+    }
+}
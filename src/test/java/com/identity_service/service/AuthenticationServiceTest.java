@@ -0,0 +1,82 @@
+package com.identity_service.service;
+
+import com.identity_service.dto.request.AuthenticationRequest;
+import com.identity_service.entity.RevocationLog;
+import com.identity_service.enums.ErrorCode;
+import com.identity_service.enums.RevocationKind;
+import com.identity_service.exception.AppException;
+import com.identity_service.repository.RevocationLogRepository;
+import com.identity_service.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.Date;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+// no scheduled poll after the one at startup: the tests decide when the feed is read
+@SpringBootTest
+@TestPropertySource(locations = "/test.properties", properties = "revocation.feed.poll-interval=3600000")
+public class AuthenticationServiceTest {
+
+    @Autowired
+    private AuthenticationService authenticationService;
+
+    @Autowired
+    private JdbcRevocationFeed revocationFeed;
+
+    @SpyBean
+    private RevocationLogRepository revocationLogRepository;
+
+    @MockBean
+    private UserRepository userRepository;
+
+    @Test
+    void authenticate_unknownUsername_rejectedWithoutQuery() {
+        clearInvocations(userRepository, revocationLogRepository);
+
+        var exception = assertThrows(AppException.class, () -> authenticationService.authenticate(login("saul")));
+
+        assertThat(exception.getErrorCode()).isEqualTo(ErrorCode.USER_NOT_FOUND);
+        verifyNoInteractions(userRepository, revocationLogRepository);
+    }
+
+    @Test
+    void authenticate_createdOnOtherNode_knownAfterNextPoll() {
+        // written straight to the log: no local delivery, as for a user created on another node
+        revocationLogRepository.save(RevocationLog.builder()
+                .kind(RevocationKind.USER)
+                .subject("jesse")
+                .version(0L)
+                .createdAt(new Date())
+                .build());
+        when(userRepository.findByUsername("jesse")).thenReturn(Optional.empty());
+
+        assertThrows(AppException.class, () -> authenticationService.authenticate(login("jesse")));
+        verify(userRepository, never()).findByUsername(anyString());
+
+        revocationFeed.poll();
+
+        assertThrows(AppException.class, () -> authenticationService.authenticate(login("jesse")));
+        verify(userRepository).findByUsername("jesse");
+    }
+
+    private static AuthenticationRequest login(String username) {
+        return AuthenticationRequest.builder()
+                .username(username)
+                .password("12345678")
+                .build();
+    }
+}
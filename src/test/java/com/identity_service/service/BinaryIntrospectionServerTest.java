@@ -0,0 +1,107 @@
+package com.identity_service.service;
+
+import com.identity_service.dto.request.AuthenticationRequest;
+import com.identity_service.dto.request.UserCreationRequest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@TestPropertySource(locations = "/test.properties", properties = {
+        "introspection.binary.enabled=true",
+        "introspection.binary.port=0"
+})
+public class BinaryIntrospectionServerTest {
+    @Autowired
+    private BinaryIntrospectionServer server;
+
+    @Autowired
+    private AuthenticationService authenticationService;
+
+    @Autowired
+    private UserService userService;
+
+    @Test
+    void introspect_pipelinedBatches_answeredInOrder() throws Exception {
+        userService.createUser(UserCreationRequest.builder()
+                .username("skyler")
+                .password("12345678")
+                .build());
+        String token = authenticationService.authenticate(AuthenticationRequest.builder()
+                .username("skyler")
+                .password("12345678")
+                .build()).getToken();
+
+        try (var socket = new Socket("127.0.0.1", server.getPort());
+             var out = new DataOutputStream(socket.getOutputStream());
+             var in = new DataInputStream(socket.getInputStream())) {
+            // both frames are sent before reading any response
+            out.write(frame(1, token, "not-a-token", token.substring(0, token.length() - 2) + "xx"));
+            out.write(frame(2, token));
+            out.flush();
+
+            assertThat(in.readInt()).isEqualTo(6 + 3);
+            assertThat(in.readInt()).isEqualTo(1);
+            assertThat(in.readUnsignedShort()).isEqualTo(3);
+            assertThat(in.readByte()).isEqualTo(BinaryIntrospectionServer.VALID);
+            assertThat(in.readByte()).isEqualTo(BinaryIntrospectionServer.MALFORMED);
+            assertThat(in.readByte()).isEqualTo(BinaryIntrospectionServer.INVALID);
+
+            assertThat(in.readInt()).isEqualTo(6 + 1);
+            assertThat(in.readInt()).isEqualTo(2);
+            assertThat(in.readUnsignedShort()).isEqualTo(1);
+            assertThat(in.readByte()).isEqualTo(BinaryIntrospectionServer.VALID);
+        }
+    }
+
+    @Test
+    void introspect_frameOverrun_onlyCompleteFramesAnswered() throws Exception {
+        try (var socket = new Socket("127.0.0.1", server.getPort());
+             var out = new DataOutputStream(socket.getOutputStream());
+             var in = new DataInputStream(socket.getInputStream())) {
+            out.write(frame(1, "not-a-token"));
+            // claims two tokens but the length only covers the first one; the second is empty, so nothing is
+            // left unread when the server closes (unread input would reset the connection)
+            byte[] overrun = frame(2, "a", "");
+            ByteBuffer.wrap(overrun).putInt(0, 6 + 2 + 1);
+            out.write(overrun);
+            out.flush();
+
+            assertThat(in.readInt()).isEqualTo(6 + 1);
+            assertThat(in.readInt()).isEqualTo(1);
+            assertThat(in.readUnsignedShort()).isEqualTo(1);
+            assertThat(in.readByte()).isEqualTo(BinaryIntrospectionServer.MALFORMED);
+
+            // closed without any part of the second response
+            assertThat(in.read()).isEqualTo(-1);
+        }
+    }
+
+    private static byte[] frame(int requestId, String... tokens) throws IOException {
+        var payload = new ByteArrayOutputStream();
+        var data = new DataOutputStream(payload);
+        data.writeInt(requestId);
+        data.writeShort(tokens.length);
+        for (String token : tokens) {
+            byte[] bytes = token.getBytes(StandardCharsets.US_ASCII);
+            data.writeShort(bytes.length);
+            data.write(bytes);
+        }
+
+        var frame = new ByteArrayOutputStream();
+        new DataOutputStream(frame).writeInt(payload.size());
+        payload.writeTo(frame);
+        return frame.toByteArray();
+    }
+}
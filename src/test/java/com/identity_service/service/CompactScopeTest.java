@@ -0,0 +1,61 @@
+package com.identity_service.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CompactScopeTest {
+    private static final List<String> NAMES = List.of("ROLE_ADMIN", "ROLE_USER", "APPROVE_POST", "DELETE_POST", "READ_DATA");
+
+    @Test
+    void encode_decode_roundTrip() {
+        CompactScope dictionary = CompactScope.of(NAMES);
+        List<String> leftovers = new ArrayList<>();
+
+        String encoded = dictionary.encode(List.of("ROLE_ADMIN", "DELETE_POST", "READ_DATA"), leftovers);
+
+        assertThat(leftovers).isEmpty();
+        assertThat(dictionary.decode(encoded)).containsExactlyInAnyOrder("ROLE_ADMIN", "DELETE_POST", "READ_DATA");
+    }
+
+    @Test
+    void encode_emptySet_decodesToNothing() {
+        CompactScope dictionary = CompactScope.of(NAMES);
+
+        assertThat(dictionary.decode(dictionary.encode(List.of(), new ArrayList<>()))).isEmpty();
+    }
+
+    @Test
+    void encode_namesMissingFromDictionary_leftOver() {
+        CompactScope dictionary = CompactScope.of(NAMES);
+        List<String> leftovers = new ArrayList<>();
+
+        String encoded = dictionary.encode(List.of("ROLE_ADMIN", "ROLE_EDITOR", "PUBLISH_POST"), leftovers);
+
+        assertThat(leftovers).containsExactlyInAnyOrder("ROLE_EDITOR", "PUBLISH_POST");
+        assertThat(dictionary.decode(encoded)).containsExactly("ROLE_ADMIN");
+    }
+
+    @Test
+    void of_sameNamesAnyOrder_sameVersion() {
+        CompactScope dictionary = CompactScope.of(NAMES);
+        CompactScope reordered = CompactScope.of(NAMES.reversed());
+        CompactScope extended = CompactScope.of(List.of("ROLE_ADMIN", "ROLE_USER", "APPROVE_POST", "DELETE_POST", "READ_DATA", "X"));
+
+        assertThat(reordered.getVersion()).isEqualTo(dictionary.getVersion());
+        assertThat(extended.getVersion()).isNotEqualTo(dictionary.getVersion());
+    }
+
+    @Test
+    void restore_storedDictionary_decodesSameBits() {
+        CompactScope dictionary = CompactScope.of(NAMES);
+        CompactScope restored = CompactScope.restore(dictionary.getVersion(), dictionary.getJoinedNames());
+
+        String encoded = dictionary.encode(List.of("ROLE_USER", "APPROVE_POST"), new ArrayList<>());
+
+        assertThat(restored.decode(encoded)).containsExactlyInAnyOrder("ROLE_USER", "APPROVE_POST");
+    }
+}
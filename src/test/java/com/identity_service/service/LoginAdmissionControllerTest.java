@@ -0,0 +1,95 @@
+package com.identity_service.service;
+
+import com.identity_service.enums.ErrorCode;
+import com.identity_service.exception.OverloadedException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class LoginAdmissionControllerTest {
+    private LoginAdmissionController controller;
+
+    @BeforeEach
+    void initController() {
+        controller = new LoginAdmissionController();
+        controller.ENABLED = true;
+        controller.MAX_CONCURRENCY = 1;
+        controller.MAX_QUEUE = 8;
+        controller.TARGET_DELAY = 5;
+        controller.MAX_WAIT = 50;
+        controller.SERVLET_THREADS = 200;
+        controller.init();
+    }
+
+    @Test
+    void acquire_queueStuck_shedsWithRetryAfter() {
+        controller.acquire();
+
+        // waits max-wait, the 50 ms sample lifts the average above the 5 ms target
+        var timedOut = assertThrows(OverloadedException.class, controller::acquire);
+        assertThat(timedOut.getErrorCode()).isEqualTo(ErrorCode.LOGIN_OVERLOADED);
+        assertThat(timedOut.getRetryAfterSeconds()).isGreaterThanOrEqualTo(1);
+
+        long start = System.nanoTime();
+        assertThrows(OverloadedException.class, controller::acquire);
+        assertThat(System.nanoTime() - start).isLessThan(50_000_000L);
+        assertThat(controller.getRejected()).isEqualTo(2);
+    }
+
+    @Test
+    void init_queueBoundedByServletThreads() {
+        controller.MAX_CONCURRENCY = 2;
+        controller.MAX_QUEUE = 0;
+        controller.init();
+        assertThat(controller.getMaxQueue()).isEqualTo(8);
+
+        // 256 queued logins would hold every thread of a 200 thread pool
+        controller.MAX_QUEUE = 256;
+        controller.init();
+        assertThat(controller.getMaxQueue()).isEqualTo(48);
+
+        controller.SERVLET_THREADS = 8;
+        controller.init();
+        assertThat(controller.getMaxQueue()).isEqualTo(1);
+    }
+
+    @Test
+    void acquire_queueFull_shedsWithoutWaiting() throws Exception {
+        controller.SERVLET_THREADS = 8;
+        controller.MAX_WAIT = 5000;
+        controller.TARGET_DELAY = 60000;
+        controller.init();
+        controller.acquire();
+
+        Thread waiting = Thread.startVirtualThread(() -> assertThrows(OverloadedException.class, controller::acquire));
+        while (controller.queued.get() == 0) {
+            Thread.sleep(1);
+        }
+
+        // the delay average has no sample yet, the bound alone sheds
+        long start = System.nanoTime();
+        assertThrows(OverloadedException.class, controller::acquire);
+        assertThat(System.nanoTime() - start).isLessThan(50_000_000L);
+
+        waiting.interrupt();
+        waiting.join();
+    }
+
+    @Test
+    void acquire_afterRelease_admitsAndRecovers() {
+        controller.acquire();
+        assertThrows(OverloadedException.class, controller::acquire);
+        controller.release();
+
+        // free permits admit again and pull the average back under the target
+        for (int i = 0; i < 20; i++) {
+            controller.acquire();
+            controller.release();
+        }
+        controller.acquire();
+        controller.release();
+        assertThat(controller.getRejected()).isEqualTo(1);
+    }
+}
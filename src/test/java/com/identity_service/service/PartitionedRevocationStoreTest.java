@@ -0,0 +1,58 @@
+package com.identity_service.service;
+
+import com.identity_service.entity.InvalidToken;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class PartitionedRevocationStoreTest {
+    private static final long WINDOW_SECONDS = 3600;
+    private static final long HOUR_MS = WINDOW_SECONDS * 1000;
+
+    private JdbcTemplate jdbcTemplate;
+    private PartitionedRevocationStore store;
+
+    @BeforeEach
+    void initStore() {
+        var dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:partitioned-" + System.nanoTime() + ";MODE=MYSQL;DB_CLOSE_DELAY=-1", "sa", "sa");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+
+        store = new PartitionedRevocationStore(jdbcTemplate, new DataSourceTransactionManager(dataSource));
+        store.PARTITION_WINDOW = WINDOW_SECONDS;
+    }
+
+    @Test
+    void findExpiringAfter_onlyLiveRevocations() {
+        long now = System.currentTimeMillis();
+        store.save("expired", new Date(now - 3 * HOUR_MS));
+        store.save("live", new Date(now + HOUR_MS));
+        store.save("live", new Date(now + HOUR_MS));
+
+        var tokens = store.findExpiringAfter(new Date(now));
+
+        assertThat(tokens).extracting(InvalidToken::getId).containsExactly("live");
+    }
+
+    @Test
+    void purgeExpiredBefore_dropsWholeExpiredBuckets() {
+        long now = System.currentTimeMillis();
+        store.save("old", new Date(now - 5 * HOUR_MS));
+        store.save("older", new Date(now - 6 * HOUR_MS));
+        store.save("live", new Date(now + HOUR_MS));
+
+        store.purgeExpiredBefore(new Date(now - HOUR_MS));
+
+        String oldTable = PartitionedRevocationStore.TABLE_PREFIX + store.bucketOf(now - 5 * HOUR_MS);
+        Integer remaining = jdbcTemplate.queryForObject(
+                "select count(*) from information_schema.tables where lower(table_name) = ?", Integer.class, oldTable);
+        assertThat(remaining).isZero();
+        assertThat(store.findExpiringAfter(new Date(0))).extracting(InvalidToken::getId).containsExactly("live");
+    }
+}
@@ -0,0 +1,60 @@
+package com.identity_service.service;
+
+import com.identity_service.entity.Permission;
+import com.identity_service.entity.Role;
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class RbacGraphTest {
+
+    @Test
+    void isGranted_unionOfRoles() {
+        RbacGraph graph = RbacGraph.of(7, List.of(
+                Role.builder().name("USER").permissions(Set.of(permission("READ_DATA"))).build(),
+                Role.builder().name("ADMIN").permissions(Set.of(permission("READ_DATA"), permission("DELETE_DATA"))).build(),
+                Role.builder().name("GUEST").build()), Map.of());
+
+        BitSet user = graph.grantsOf(List.of("USER", "GUEST"));
+        BitSet admin = graph.grantsOf(List.of("ADMIN"));
+
+        assertThat(graph.getVersion()).isEqualTo(7);
+        assertThat(graph.isGranted(user, "READ_DATA")).isTrue();
+        assertThat(graph.isGranted(user, "DELETE_DATA")).isFalse();
+        assertThat(graph.isGranted(user, "ROLE_GUEST")).isTrue();
+        assertThat(graph.isGranted(admin, "DELETE_DATA")).isTrue();
+        assertThat(graph.isGranted(admin, "ROLE_USER")).isFalse();
+        assertThat(graph.isGranted(admin, "UNKNOWN")).isFalse();
+        assertThat(graph.isGranted(graph.grantsOf(List.of("MISSING")), "READ_DATA")).isFalse();
+    }
+
+    @Test
+    void grantsOf_inheritedRoles_transitiveClosure() {
+        RbacGraph graph = RbacGraph.of(1, List.of(
+                Role.builder().name("USER").permissions(Set.of(permission("READ_DATA"))).build(),
+                Role.builder().name("MANAGER").permissions(Set.of(permission("APPROVE_DATA"))).build(),
+                Role.builder().name("ADMIN").permissions(Set.of(permission("DELETE_DATA"))).build()),
+                // the USER -> ADMIN edge closes a cycle
+                Map.of("ADMIN", List.of("MANAGER"), "MANAGER", List.of("USER"), "USER", List.of("ADMIN")));
+
+        assertThat(graph.authoritiesOf(List.of("ADMIN"))).containsExactlyInAnyOrder(
+                "ROLE_ADMIN", "ROLE_MANAGER", "ROLE_USER", "READ_DATA", "APPROVE_DATA", "DELETE_DATA");
+
+        RbacGraph acyclic = RbacGraph.of(1, List.of(
+                Role.builder().name("USER").permissions(Set.of(permission("READ_DATA"))).build(),
+                Role.builder().name("MANAGER").permissions(Set.of(permission("APPROVE_DATA"))).build()),
+                Map.of("MANAGER", List.of("USER")));
+
+        assertThat(acyclic.isGranted(acyclic.grantsOf(List.of("MANAGER")), "READ_DATA")).isTrue();
+        assertThat(acyclic.isGranted(acyclic.grantsOf(List.of("USER")), "APPROVE_DATA")).isFalse();
+    }
+
+    private static Permission permission(String name) {
+        return Permission.builder().name(name).build();
+    }
+}
@@ -0,0 +1,66 @@
+package com.identity_service.service;
+
+import com.identity_service.dto.request.AuthenticationRequest;
+import com.identity_service.dto.request.IntrospectRequest;
+import com.identity_service.dto.request.RefreshRequest;
+import com.identity_service.dto.request.UserCreationRequest;
+import com.identity_service.exception.AppException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+@TestPropertySource(locations = "/test.properties", properties = "jwt.refresh-grace-period=1")
+public class RefreshSingleFlightTest {
+    private static final int CALLERS = 8;
+
+    @Autowired
+    private AuthenticationService authenticationService;
+
+    @Autowired
+    private UserService userService;
+
+    @Test
+    void refreshToken_concurrentSameToken_oneNewToken() throws Exception {
+        userService.createUser(UserCreationRequest.builder()
+                .username("jesse")
+                .password("12345678")
+                .build());
+        String token = authenticationService.authenticate(AuthenticationRequest.builder()
+                .username("jesse")
+                .password("12345678")
+                .build()).getToken();
+
+        ExecutorService executor = Executors.newFixedThreadPool(CALLERS);
+        List<Future<String>> refreshed = new ArrayList<>();
+        Callable<String> refresh = () -> authenticationService
+                .refreshToken(RefreshRequest.builder().token(token).build()).getToken();
+        for (int i = 0; i < CALLERS; i++) {
+            refreshed.add(executor.submit(refresh));
+        }
+
+        String newToken = refreshed.get(0).get();
+        for (Future<String> future : refreshed) {
+            assertThat(future.get()).isEqualTo(newToken);
+        }
+        executor.shutdown();
+
+        assertThat(newToken).isNotEqualTo(token);
+        assertThat(authenticationService.introspect(IntrospectRequest.builder().token(newToken).build()).isValid()).isTrue();
+
+        // after the grace period the old token is refused again
+        Thread.sleep(1100);
+        assertThrows(AppException.class, () -> authenticationService.refreshToken(RefreshRequest.builder().token(token).build()));
+    }
+}
@@ -0,0 +1,135 @@
+package com.identity_service.service;
+
+import com.identity_service.IdentityServiceApplication;
+import com.identity_service.dto.request.AuthenticationRequest;
+import com.identity_service.dto.request.IntrospectRequest;
+import com.identity_service.dto.request.LogoutRequest;
+import com.identity_service.dto.request.UserCreationRequest;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// two application contexts ("nodes") sharing one H2 database
+public class RevocationPropagationTest {
+    private static final long POLL_INTERVAL_MS = 200;
+
+    private static ConfigurableApplicationContext nodeA;
+    private static ConfigurableApplicationContext nodeB;
+
+    @BeforeAll
+    static void startNodes() throws InterruptedException {
+        nodeA = startNode();
+        nodeB = startNode();
+
+        nodeA.getBean(UserService.class).createUser(UserCreationRequest.builder()
+                .username("walter")
+                .password("12345678")
+                .build());
+        assertThat(awaitKnown(nodeB, "walter")).isTrue();
+    }
+
+    @AfterAll
+    static void stopNodes() {
+        nodeB.close();
+        nodeA.close();
+    }
+
+    @Test
+    void logout_onOneNode_tokenRejectedOnOtherNode() throws Exception {
+        String token = login(nodeA);
+        assertThat(isValid(nodeB, token)).isTrue();
+
+        nodeA.getBean(AuthenticationService.class).logout(LogoutRequest.builder().token(token).build());
+
+        // the publishing node sees its own revocation immediately
+        assertThat(isValid(nodeA, token)).isFalse();
+        assertThat(awaitInvalid(nodeB, token)).isTrue();
+    }
+
+    @Test
+    void logoutAll_onOneNode_allTokensRejectedOnOtherNode() throws Exception {
+        String first = login(nodeA);
+        String second = login(nodeB);
+        assertThat(isValid(nodeB, first)).isTrue();
+
+        nodeB.getBean(AuthenticationService.class).logoutAll(LogoutRequest.builder().token(second).build());
+
+        assertThat(isValid(nodeB, first)).isFalse();
+        assertThat(awaitInvalid(nodeA, first)).isTrue();
+        assertThat(awaitInvalid(nodeA, second)).isTrue();
+    }
+
+    @Test
+    void login_onOtherNodeAfterSignup_succeedsWithinPollInterval() throws InterruptedException {
+        nodeA.getBean(UserService.class).createUser(UserCreationRequest.builder()
+                .username("jesse")
+                .password("12345678")
+                .build());
+
+        // nodeB's username filter learns the name from the feed, negatives never query the database
+        assertThat(awaitKnown(nodeB, "jesse")).isTrue();
+        String token = nodeB.getBean(AuthenticationService.class).authenticate(AuthenticationRequest.builder()
+                .username("jesse")
+                .password("12345678")
+                .build()).getToken();
+
+        assertThat(token).isNotBlank();
+    }
+
+    private static ConfigurableApplicationContext startNode() {
+        return new SpringApplicationBuilder(IdentityServiceApplication.class)
+                .properties(
+                        "server.port=0",
+                        "spring.datasource.url=jdbc:h2:mem:revocation-feed;MODE=MYSQL;NON_KEYWORDS=USER;DB_CLOSE_DELAY=-1",
+                        "spring.datasource.driverClassName=org.h2.Driver",
+                        "spring.datasource.username=sa",
+                        "spring.datasource.password=sa",
+                        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+                        "spring.jpa.hibernate.ddl-auto=none",
+                        "spring.devtools.restart.enabled=false",
+                        "warmup.enabled=false",
+                        "revocation.feed.poll-interval=" + POLL_INTERVAL_MS)
+                .run();
+    }
+
+    private static String login(ConfigurableApplicationContext node) {
+        return node.getBean(AuthenticationService.class).authenticate(AuthenticationRequest.builder()
+                .username("walter")
+                .password("12345678")
+                .build()).getToken();
+    }
+
+    private static boolean isValid(ConfigurableApplicationContext node, String token) throws Exception {
+        return node.getBean(AuthenticationService.class)
+                .introspect(IntrospectRequest.builder().token(token).build())
+                .isValid();
+    }
+
+    private static boolean awaitKnown(ConfigurableApplicationContext node, String username) throws InterruptedException {
+        UsernameIndexService usernameIndexService = node.getBean(UsernameIndexService.class);
+        long deadline = System.currentTimeMillis() + 20 * POLL_INTERVAL_MS;
+        while (System.currentTimeMillis() < deadline) {
+            if (usernameIndexService.mightExist(username)) {
+                return true;
+            }
+            Thread.sleep(POLL_INTERVAL_MS / 4);
+        }
+        return false;
+    }
+
+    // waits up to a few poll intervals for the node to converge
+    private static boolean awaitInvalid(ConfigurableApplicationContext node, String token) throws Exception {
+        long deadline = System.currentTimeMillis() + 20 * POLL_INTERVAL_MS;
+        while (System.currentTimeMillis() < deadline) {
+            if (!isValid(node, token)) {
+                return true;
+            }
+            Thread.sleep(POLL_INTERVAL_MS / 4);
+        }
+        return false;
+    }
+}
@@ -0,0 +1,115 @@
+package com.identity_service.service;
+
+import com.identity_service.dto.request.AuthenticationRequest;
+import com.identity_service.dto.request.PermissionRequest;
+import com.identity_service.dto.request.RoleRequest;
+import com.identity_service.dto.request.UserCreationRequest;
+import com.identity_service.dto.request.UserUpdateRequest;
+import com.nimbusds.jwt.SignedJWT;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+// real repositories: inheritance is resolved from the role_inherits table
+@SpringBootTest
+@TestPropertySource("/test.properties")
+public class RoleServiceTest {
+
+    @Autowired
+    private RoleService roleService;
+
+    @Autowired
+    private PermissionService permissionService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private AuthenticationService authenticationService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private String userId;
+
+    @BeforeEach
+    void initData() {
+        permissionService.create(PermissionRequest.builder().name("READ_REPORT").build());
+        permissionService.create(PermissionRequest.builder().name("WRITE_REPORT").build());
+
+        roleService.create(RoleRequest.builder()
+                .name("REPORT_READER")
+                .permissions(Set.of("READ_REPORT"))
+                .build());
+        roleService.create(RoleRequest.builder()
+                .name("REPORT_WRITER")
+                .permissions(Set.of("WRITE_REPORT"))
+                .inherits(Set.of("REPORT_READER"))
+                .build());
+
+        userId = userService.createUser(UserCreationRequest.builder()
+                .username("mike")
+                .password("12345678")
+                .build()).getId();
+        userService.updateUser(userId, UserUpdateRequest.builder()
+                .password("12345678")
+                .roles(List.of("REPORT_WRITER"))
+                .build());
+    }
+
+    @AfterEach
+    void deleteData() {
+        userService.deleteUser(userId);
+        for (String role : List.of("REPORT_WRITER", "REPORT_READER")) {
+            if (roleService.getAll().stream().anyMatch(response -> response.getName().equals(role))) {
+                roleService.delete(role);
+            }
+        }
+        permissionService.delete("WRITE_REPORT");
+        permissionService.delete("READ_REPORT");
+    }
+
+    @Test
+    void login_inheritedRole_closureGranted() throws Exception {
+        assertThat(scopeOf(login())).contains("ROLE_REPORT_WRITER", "WRITE_REPORT", "ROLE_REPORT_READER", "READ_REPORT");
+    }
+
+    @Test
+    void delete_inheritedRole_loginAuthoritiesFollowClosure() throws Exception {
+        roleService.delete("REPORT_READER");
+
+        assertThat(scopeOf(login()))
+                .contains("ROLE_REPORT_WRITER", "WRITE_REPORT")
+                .doesNotContain("ROLE_REPORT_READER", "READ_REPORT");
+        assertThat(jdbcTemplate.queryForObject("select count(*) from role_inherits where inherits_name = 'REPORT_READER'",
+                Integer.class)).isZero();
+    }
+
+    @Test
+    void roleInherits_unknownRole_rejectedByForeignKey() {
+        assertThrows(DataIntegrityViolationException.class, () -> jdbcTemplate.update(
+                "insert into role_inherits (role_name, inherits_name) values ('REPORT_WRITER', 'MISSING_ROLE')"));
+    }
+
+    private String login() {
+        return authenticationService.authenticate(AuthenticationRequest.builder()
+                .username("mike")
+                .password("12345678")
+                .build()).getToken();
+    }
+
+    private static List<String> scopeOf(String token) throws Exception {
+        return List.of(SignedJWT.parse(token).getJWTClaimsSet().getStringClaim("scope").split(" "));
+    }
+}
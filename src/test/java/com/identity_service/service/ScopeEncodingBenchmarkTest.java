@@ -0,0 +1,103 @@
+package com.identity_service.service;
+
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.MACSigner;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtGrantedAuthoritiesConverter;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Token size and per-request authority decode cost of the plain "scope" claim versus the compact
+ * dictionary bitset, for an admin holding every role and permission. Run with {@code mvn -Pperf test}.
+ */
+@Slf4j
+@Tag("perf")
+public class ScopeEncodingBenchmarkTest {
+    private static final String SIGNER_KEY = "SLHLfWZMSj23g64t76GxuyaJAJskUCeyrMLSRDyM6bghzKGp5Pp9m0KloQD3riWU";
+    private static final int ITERATIONS = 200_000;
+
+    @Test
+    void compactScope_adminToken_smallerAndDecodeCostReported() throws Exception {
+        List<String> authorities = new ArrayList<>(List.of("ROLE_ADMIN", "ROLE_MANAGER", "ROLE_USER"));
+        IntStream.range(0, 150).forEach(i -> authorities.add("PERMISSION_RESOURCE_" + i));
+
+        CompactScope dictionary = CompactScope.of(authorities);
+        List<String> leftovers = new ArrayList<>();
+        String compactScope = dictionary.encode(authorities, leftovers);
+        String plainScope = String.join(" ", authorities);
+
+        String plainToken = sign(new JWTClaimsSet.Builder().subject("admin").claim("scope", plainScope));
+        String compactToken = sign(new JWTClaimsSet.Builder().subject("admin")
+                .claim("perms", compactScope)
+                .claim("perms_v", dictionary.getVersion()));
+
+        Jwt plainJwt = jwt(plainToken, "scope", plainScope);
+        JwtGrantedAuthoritiesConverter plainConverter = new JwtGrantedAuthoritiesConverter();
+        plainConverter.setAuthorityPrefix("");
+
+        double plainNanos = nanosPerCall(() -> plainConverter.convert(plainJwt));
+        double compactNanos = nanosPerCall(() -> {
+            Collection<GrantedAuthority> granted = new ArrayList<>();
+            dictionary.decode(compactScope).forEach(name -> granted.add(new SimpleGrantedAuthority(name)));
+            return granted;
+        });
+
+        log.info("authorities={} plain token={} bytes, compact token={} bytes", authorities.size(),
+                plainToken.length(), compactToken.length());
+        log.info("authority decode: plain={} ns/call, compact={} ns/call",
+                String.format("%.0f", plainNanos), String.format("%.0f", compactNanos));
+
+        assertThat(leftovers).isEmpty();
+        assertThat(dictionary.decode(compactScope)).containsExactlyInAnyOrderElementsOf(authorities);
+        assertThat(compactToken.length()).isLessThan(plainToken.length() / 4);
+    }
+
+    private static String sign(JWTClaimsSet.Builder claims) throws Exception {
+        SignedJWT signedJWT = new SignedJWT(new JWSHeader(JWSAlgorithm.HS512), claims
+                .issueTime(new Date())
+                .expirationTime(Date.from(Instant.now().plusSeconds(3600)))
+                .build());
+        signedJWT.sign(new MACSigner(SIGNER_KEY.getBytes()));
+        return signedJWT.serialize();
+    }
+
+    private static Jwt jwt(String token, String claim, Object value) {
+        return Jwt.withTokenValue(token)
+                .header("alg", "HS512")
+                .claim(claim, value)
+                .build();
+    }
+
+    private static double nanosPerCall(Supplier<Collection<GrantedAuthority>> call) {
+        long sink = 0;
+        for (int i = 0; i < ITERATIONS; i++) {
+            sink += call.get().size();
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            sink += call.get().size();
+        }
+        long elapsed = System.nanoTime() - start;
+
+        assertThat(sink).isPositive();
+        return (double) elapsed / ITERATIONS;
+    }
+}
@@ -0,0 +1,128 @@
+package com.identity_service.service;
+
+import com.identity_service.dto.request.AuthenticationRequest;
+import com.identity_service.dto.request.IntrospectRequest;
+import com.identity_service.dto.request.LogoutRequest;
+import com.identity_service.dto.request.UserCreationRequest;
+import com.identity_service.dto.request.UserUpdateRequest;
+import com.identity_service.enums.RevocationKind;
+import com.identity_service.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.doThrow;
+
+// real repositories: the epoch lives in the users table
+@SpringBootTest
+@TestPropertySource("/test.properties")
+public class TokenEpochServiceTest {
+    private static final String USERNAME = "gustavo";
+    private static final String PASSWORD = "12345678";
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private AuthenticationService authenticationService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @SpyBean
+    private RevocationFeed revocationFeed;
+
+    private String userId;
+
+    @BeforeEach
+    void initData() {
+        userId = userService.createUser(UserCreationRequest.builder()
+                .username(USERNAME)
+                .password(PASSWORD)
+                .build()).getId();
+    }
+
+    @AfterEach
+    void deleteUser() {
+        userService.deleteUser(userId);
+    }
+
+    @Test
+    void logoutAll_everyTokenOfUserRejected() throws Exception {
+        String first = login(PASSWORD);
+        String second = login(PASSWORD);
+
+        authenticationService.logoutAll(LogoutRequest.builder().token(first).build());
+
+        assertThat(isValid(first)).isFalse();
+        assertThat(isValid(second)).isFalse();
+        assertThat(isValid(login(PASSWORD))).isTrue();
+    }
+
+    @Test
+    void updateUser_newPassword_tokensRejected() throws Exception {
+        String token = login(PASSWORD);
+
+        userService.updateUser(userId, update("87654321"));
+
+        assertThat(isValid(token)).isFalse();
+        assertThat(isValid(login("87654321"))).isTrue();
+    }
+
+    @Test
+    void updateUser_samePassword_tokensKept() throws Exception {
+        String token = login(PASSWORD);
+
+        userService.updateUser(userId, update(PASSWORD));
+
+        assertThat(isValid(token)).isTrue();
+    }
+
+    @Test
+    void updateUser_feedEntryFails_passwordAndEpochRolledBack() {
+        doThrow(new IllegalStateException("feed unavailable")).when(revocationFeed).publish(argThat(event ->
+                event.getKind() == RevocationKind.USER_EPOCH && event.getEpoch() != null));
+
+        assertThrows(IllegalStateException.class, () -> userService.updateUser(userId, update("87654321")));
+
+        assertThat(userRepository.findTokenEpochByUsername(USERNAME)).contains(0L);
+        assertThat(login(PASSWORD)).isNotNull();
+    }
+
+    @Test
+    void deleteUser_tokensRejected() throws Exception {
+        String token = login(PASSWORD);
+
+        userService.deleteUser(userId);
+
+        assertThat(isValid(token)).isFalse();
+    }
+
+    private String login(String password) {
+        return authenticationService.authenticate(AuthenticationRequest.builder()
+                .username(USERNAME)
+                .password(password)
+                .build()).getToken();
+    }
+
+    private boolean isValid(String token) throws Exception {
+        return authenticationService.introspect(IntrospectRequest.builder().token(token).build()).isValid();
+    }
+
+    private static UserUpdateRequest update(String password) {
+        return UserUpdateRequest.builder()
+                .password(password)
+                .lastName("Fring")
+                .roles(List.of())
+                .build();
+    }
+}
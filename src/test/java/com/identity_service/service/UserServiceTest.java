@@ -1,25 +1,45 @@
 package com.identity_service.service;
 
 import com.identity_service.dto.request.UserCreationRequest;
+import com.identity_service.dto.request.UserPatchRequest;
+import com.identity_service.dto.request.UserUpdateRequest;
 import com.identity_service.dto.response.UserResponse;
+import com.identity_service.entity.Role;
 import com.identity_service.entity.User;
+import com.identity_service.enums.ErrorCode;
 import com.identity_service.exception.AppException;
+import com.identity_service.repository.RoleRepository;
 import com.identity_service.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.http.HttpStatus;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.TestPropertySource;
 
 import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @SpringBootTest
@@ -29,9 +49,18 @@ public class UserServiceTest {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private UsernameIndexService usernameIndexService;
+
     @MockBean
     private UserRepository userRepository;
 
+    @MockBean
+    private RoleRepository roleRepository;
+
+    @SpyBean
+    private PasswordEncoder passwordEncoder;
+
     // input and output data
     private UserCreationRequest request;
     private UserResponse response;
@@ -86,6 +115,7 @@ public class UserServiceTest {
     @Test
     void createUser_userExisted_fail() {
         // given
+        usernameIndexService.put("walter");
         when(userRepository.existsByUsername(anyString())).thenReturn(true);
 
         // when
@@ -95,6 +125,16 @@ public class UserServiceTest {
         assertThat(exception.getErrorCode().getCode()).isEqualTo(1001);
     }
 
+    @Test
+    void createUser_userExisted_rejectedBeforeHashing() {
+        usernameIndexService.put("Walter");
+        when(userRepository.existsByUsername(anyString())).thenReturn(true);
+
+        assertThrows(AppException.class, () -> userService.createUser(request));
+
+        verify(userRepository, never()).save(any());
+    }
+
     @Test
     @WithMockUser(username = "walter")
     void getMyInfo_valid_success() {
@@ -115,4 +155,175 @@ public class UserServiceTest {
 
         assertThat(exception.getErrorCode().getCode()).isEqualTo(1001);
     }
+
+    @Test
+    void getUser_ownId_success() {
+        authenticateAs("walter", "cf0600f538b3");
+        when(userRepository.findById(anyString())).thenReturn(Optional.of(user));
+
+        var response = userService.getUser("cf0600f538b3");
+
+        assertThat(response.getUsername()).isEqualTo("walter");
+    }
+
+    @Test
+    void getUser_otherId_deniedBeforeLoading() {
+        authenticateAs("walter", "cf0600f538b3");
+
+        assertThrows(AccessDeniedException.class, () -> userService.getUser("a1b2c3d4e5f6"));
+
+        verify(userRepository, never()).findById(anyString());
+    }
+
+    @Test
+    void patchUser_lastNameOnly_noHashingNoEpochBump() {
+        user.setPassword("$2a$10$hash");
+        user.setTokenEpoch(3);
+        when(userRepository.findById(anyString())).thenReturn(Optional.of(user));
+        when(userRepository.saveAndFlush(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        var response = userService.patchUser("cf0600f538b3", UserPatchRequest.builder()
+                .lastName("Heisenberg")
+                .build());
+
+        assertThat(response.getLastName()).isEqualTo("Heisenberg");
+        assertThat(response.getFirstName()).isEqualTo("Walter");
+        assertThat(user.getPassword()).isEqualTo("$2a$10$hash");
+        assertThat(user.getTokenEpoch()).isEqualTo(3);
+        verify(passwordEncoder, never()).encode(any());
+    }
+
+    @Test
+    void patchUser_samePassword_noRehashNoEpochBump() {
+        user.setPassword(passwordEncoder.encode("12345678"));
+        String hash = user.getPassword();
+        user.setTokenEpoch(3);
+        when(userRepository.findById(anyString())).thenReturn(Optional.of(user));
+        when(userRepository.saveAndFlush(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        clearInvocations(passwordEncoder);
+
+        userService.patchUser("cf0600f538b3", UserPatchRequest.builder()
+                .password("12345678")
+                .build());
+
+        assertThat(user.getPassword()).isEqualTo(hash);
+        assertThat(user.getTokenEpoch()).isEqualTo(3);
+        verify(passwordEncoder, never()).encode(any());
+    }
+
+    @Test
+    void patchUser_newPassword_rehashedAndEpochBumped() {
+        user.setPassword(passwordEncoder.encode("12345678"));
+        user.setTokenEpoch(3);
+        when(userRepository.findById(anyString())).thenReturn(Optional.of(user));
+        when(userRepository.saveAndFlush(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        userService.patchUser("cf0600f538b3", UserPatchRequest.builder()
+                .password("87654321")
+                .build());
+
+        assertThat(passwordEncoder.matches("87654321", user.getPassword())).isTrue();
+        assertThat(user.getTokenEpoch()).isEqualTo(4);
+    }
+
+    @Test
+    void patchUser_addAndRemoveRoles_onlyDiffApplied() {
+        Role userRole = Role.builder().name("USER").build();
+        Role editorRole = Role.builder().name("EDITOR").build();
+        Role adminRole = Role.builder().name("ADMIN").build();
+        user.setRoles(new HashSet<>(Set.of(userRole, editorRole)));
+
+        when(userRepository.findById(anyString())).thenReturn(Optional.of(user));
+        when(userRepository.saveAndFlush(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(roleRepository.findAllById(any())).thenReturn(List.of(adminRole));
+
+        userService.patchUser("cf0600f538b3", UserPatchRequest.builder()
+                .addRoles(Set.of("ADMIN", "USER"))
+                .removeRoles(Set.of("EDITOR"))
+                .build());
+
+        // USER is already held: only ADMIN is loaded
+        verify(roleRepository).findAllById(Set.of("ADMIN"));
+        assertThat(user.getRoles()).containsExactlyInAnyOrder(userRole, adminRole);
+    }
+
+    @Test
+    void patchUser_staleVersion_conflict() {
+        user.setVersion(5);
+        when(userRepository.findById(anyString())).thenReturn(Optional.of(user));
+
+        var exception = assertThrows(AppException.class, () -> userService.patchUser("cf0600f538b3",
+                UserPatchRequest.builder().lastName("Heisenberg").version(4L).build()));
+
+        assertThat(exception.getErrorCode()).isEqualTo(ErrorCode.USER_VERSION_CONFLICT);
+        assertThat(exception.getErrorCode().getCode()).isEqualTo(1004);
+        assertThat(exception.getErrorCode().getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+        verify(userRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    void patchUser_concurrentUpdate_conflict() {
+        when(userRepository.findById(anyString())).thenReturn(Optional.of(user));
+        when(userRepository.saveAndFlush(any())).thenThrow(new ObjectOptimisticLockingFailureException(User.class, "cf0600f538b3"));
+
+        var exception = assertThrows(AppException.class, () -> userService.patchUser("cf0600f538b3",
+                UserPatchRequest.builder().lastName("Heisenberg").build()));
+
+        assertThat(exception.getErrorCode()).isEqualTo(ErrorCode.USER_VERSION_CONFLICT);
+    }
+
+    // each test uses its own username: the version cache outlives the test
+    @Test
+    @WithMockUser(username = "skyler")
+    void getMyInfoETag_afterPatchUser_changes() {
+        User skyler = User.builder().id("5c7e1a9d2b4f").username("skyler").version(10).build();
+        when(userRepository.findVersionByUsername("skyler")).thenReturn(Optional.of(10L));
+        when(userRepository.findById("5c7e1a9d2b4f")).thenReturn(Optional.of(skyler));
+        when(userRepository.saveAndFlush(any())).thenAnswer(invocation -> {
+            User saved = invocation.getArgument(0);
+            saved.setVersion(saved.getVersion() + 1);
+            return saved;
+        });
+
+        String before = userService.getMyInfoETag();
+        userService.patchUser("5c7e1a9d2b4f", UserPatchRequest.builder().lastName("White").build());
+
+        assertThat(userService.getMyInfoETag()).isNotEqualTo(before);
+    }
+
+    @Test
+    @WithMockUser(username = "hank")
+    void getMyInfoETag_afterUpdateUser_changes() {
+        User hank = User.builder().id("8d3f6b2a9e1c").username("hank").password("$2a$10$hash").version(3).build();
+        when(userRepository.findVersionByUsername("hank")).thenReturn(Optional.of(3L));
+        when(userRepository.findById("8d3f6b2a9e1c")).thenReturn(Optional.of(hank));
+        when(userRepository.save(any())).thenAnswer(invocation -> {
+            User saved = invocation.getArgument(0);
+            saved.setVersion(saved.getVersion() + 1);
+            return saved;
+        });
+
+        String before = userService.getMyInfoETag();
+        userService.updateUser("8d3f6b2a9e1c", UserUpdateRequest.builder()
+                .lastName("Schrader")
+                .roles(List.of())
+                .build());
+
+        assertThat(userService.getMyInfoETag()).isNotEqualTo(before);
+    }
+
+    @AfterEach
+    void clearAuthentication() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private void authenticateAs(String username, String userId) {
+        Jwt jwt = Jwt.withTokenValue("token")
+                .header("alg", "HS512")
+                .subject(username)
+                .claim("uid", userId)
+                .build();
+
+        SecurityContextHolder.getContext().setAuthentication(new JwtAuthenticationToken(jwt));
+    }
 }
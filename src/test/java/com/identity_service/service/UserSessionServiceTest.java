@@ -0,0 +1,49 @@
+package com.identity_service.service;
+
+import com.identity_service.dto.request.AuthenticationRequest;
+import com.identity_service.dto.request.IntrospectRequest;
+import com.identity_service.dto.request.LogoutRequest;
+import com.identity_service.dto.request.UserCreationRequest;
+import com.identity_service.repository.UserSessionRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@TestPropertySource("/test.properties")
+public class UserSessionServiceTest {
+    @Autowired
+    private AuthenticationService authenticationService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserSessionRepository userSessionRepository;
+
+    @Test
+    void logoutAll_severalDevices_sessionsRemoved() throws Exception {
+        userService.createUser(UserCreationRequest.builder()
+                .username("walter")
+                .password("12345678")
+                .build());
+
+        var login = AuthenticationRequest.builder().username("walter").password("12345678").build();
+        String first = authenticationService.authenticate(login).getToken();
+        String second = authenticationService.authenticate(login).getToken();
+
+        assertThat(userSessionRepository.findByUsernameAndExpiresAtAfterOrderByIssuedAtDesc("walter", new Date()))
+                .hasSize(2);
+
+        authenticationService.logoutAll(LogoutRequest.builder().token(first).build());
+
+        assertThat(userSessionRepository.findByUsernameAndExpiresAtAfterOrderByIssuedAtDesc("walter", new Date()))
+                .isEmpty();
+        assertThat(authenticationService.introspect(IntrospectRequest.builder().token(second).build()).isValid()).isFalse();
+    }
+}
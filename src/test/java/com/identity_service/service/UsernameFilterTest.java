@@ -0,0 +1,43 @@
+package com.identity_service.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class UsernameFilterTest {
+    private static final int USERS = 100_000;
+
+    @Test
+    void mightContain_noFalseNegatives_boundedFalsePositives() {
+        UsernameFilter filter = UsernameFilter.create(USERS, 0.01);
+        for (int i = 0; i < USERS; i++) {
+            filter.put("user" + i);
+        }
+
+        for (int i = 0; i < USERS; i++) {
+            assertThat(filter.mightContain("user" + i)).isTrue();
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < USERS; i++) {
+            if (filter.mightContain("absent" + i)) {
+                falsePositives++;
+            }
+        }
+        assertThat(falsePositives).isLessThan(USERS / 50);
+    }
+
+    @Test
+    void put_repeatedName_notCounted() {
+        UsernameFilter filter = UsernameFilter.create(USERS, 0.01);
+
+        assertThat(filter.put("walter")).isTrue();
+        assertThat(filter.put("walter")).isFalse();
+        assertThat(filter.size()).isEqualTo(1);
+    }
+
+    @Test
+    void key_caseAndAccentInsensitive() {
+        assertThat(UsernameIndexService.key("JOSÉ")).isEqualTo(UsernameIndexService.key("jose"));
+    }
+}
@@ -0,0 +1,90 @@
+package com.identity_service.service;
+
+import com.identity_service.dto.request.UserCreationRequest;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.DefaultApplicationArguments;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.test.context.TestPropertySource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@SpringBootTest
+@TestPropertySource(locations = "/test.properties", properties = {
+        "warmup.enabled=true",
+        "warmup.iterations=" + Integer.MAX_VALUE,
+        "warmup.budget=" + WarmupRunnerTest.BUDGET_MS
+})
+public class WarmupRunnerTest {
+    static final long BUDGET_MS = 500;
+
+    @Autowired
+    private WarmupRunner warmupRunner;
+
+    @Autowired
+    private HikariDataSource dataSource;
+
+    @Autowired
+    private UserService userService;
+
+    @SpyBean
+    private TokenEpochService tokenEpochService;
+
+    @SpyBean
+    private RbacGraphService rbacGraphService;
+
+    @Test
+    void run_unboundedIterations_stopsAtBudgetWithPoolFilled() {
+        long start = System.currentTimeMillis();
+
+        warmupRunner.run(new DefaultApplicationArguments());
+
+        assertThat(System.currentTimeMillis() - start).isLessThan(BUDGET_MS + 1000);
+        assertThat(dataSource.getHikariPoolMXBean().getTotalConnections()).isEqualTo(dataSource.getMinimumIdle());
+    }
+
+    @Test
+    void run_stuckWarmupCall_readinessNotHeldPastBudget() {
+        doAnswer(invocation -> {
+            Thread.sleep(BUDGET_MS * 6);
+            return invocation.callRealMethod();
+        }).when(rbacGraphService).authorize(any());
+
+        long start = System.currentTimeMillis();
+
+        warmupRunner.run(new DefaultApplicationArguments());
+
+        assertThat(System.currentTimeMillis() - start).isLessThan(BUDGET_MS + 1000);
+    }
+
+    @Test
+    void run_existingUser_tokensPassEpochCheckAndRolesLoaded() {
+        // sorts first, so it is part of the sample
+        String userId = userService.createUser(UserCreationRequest.builder()
+                .username("aaron")
+                .password("12345678")
+                .build()).getId();
+        try {
+            warmupRunner.run(new DefaultApplicationArguments());
+
+            verify(tokenEpochService, never()).prime(anyString(), anyLong());
+            verify(tokenEpochService, atLeastOnce()).isCurrent(eq("aaron"), eq(0L));
+            assertThat(tokenEpochService.isCurrent("aaron", 0L)).isTrue();
+            verify(rbacGraphService, atLeastOnce()).authorize(argThat(request ->
+                    "aaron".equals(request.getChecks().get(0).getSubject())));
+        } finally {
+            userService.deleteUser(userId);
+        }
+    }
+}
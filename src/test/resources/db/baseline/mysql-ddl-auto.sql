@@ -0,0 +1,17 @@
+-- The schema ddl-auto update created for the entities before the schema was migration-managed, with
+-- Hibernate's generated constraint names, as found in databases that Flyway baselines at V1.
+create table invalid_token (expiration_time datetime(6), id varchar(255) not null, primary key (id)) engine=InnoDB;
+create table permission (description varchar(255), name varchar(255) not null, primary key (name)) engine=InnoDB;
+create table role (description varchar(255), name varchar(255) not null, primary key (name)) engine=InnoDB;
+create table role_permissions (permissions_name varchar(255) not null, role_name varchar(255) not null, primary key (role_name, permissions_name)) engine=InnoDB;
+create table user (dob date, first_name varchar(255), id varchar(255) not null, last_name varchar(255), password varchar(255), username VARCHAR(255) COLLATE utf8mb4_unicode_ci, primary key (id)) engine=InnoDB;
+create table user_roles (roles_name varchar(255) not null, user_id varchar(255) not null, primary key (user_id, roles_name)) engine=InnoDB;
+alter table user add constraint UKsb8bbouer5wak8vyiiy4pf2bx unique (username);
+alter table role_permissions add constraint FKf5aljih4mxtdgalvr7xvngfn1 foreign key (permissions_name) references permission (name);
+alter table role_permissions add constraint FKcppvu8fk24eqqn6q4hws7ajux foreign key (role_name) references role (name);
+alter table user_roles add constraint FK6pmbiap985ue1c0qjic44pxlc foreign key (roles_name) references role (name);
+alter table user_roles add constraint FK55itppkw3i07do3h7qoclqd4k foreign key (user_id) references user (id);
+
+insert into role (name, description) values ('ADMIN', 'Admin role');
+insert into user (id, username, password) values ('c1a2b3d4', 'admin', '$2a$10$hash');
+insert into user_roles (user_id, roles_name) values ('c1a2b3d4', 'ADMIN');
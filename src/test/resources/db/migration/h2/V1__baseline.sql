@@ -0,0 +1,37 @@
+-- H2 counterpart of db/migration/mysql, for tests that run without MySQL.
+-- Kept re-runnable: the replica in ReadWriteRoutingTest runs it on every connection.
+create table if not exists user (
+    id varchar(255) not null primary key,
+    username varchar(255) unique,
+    password varchar(255),
+    first_name varchar(255),
+    last_name varchar(255),
+    dob date
+);
+
+create table if not exists permission (
+    name varchar(255) not null primary key,
+    description varchar(255)
+);
+
+create table if not exists role (
+    name varchar(255) not null primary key,
+    description varchar(255)
+);
+
+create table if not exists role_permissions (
+    role_name varchar(255) not null,
+    permissions_name varchar(255) not null,
+    primary key (role_name, permissions_name)
+);
+
+create table if not exists user_roles (
+    user_id varchar(255) not null,
+    roles_name varchar(255) not null,
+    primary key (user_id, roles_name)
+);
+
+create table if not exists invalid_token (
+    id varchar(255) not null primary key,
+    expiration_time timestamp(6)
+);
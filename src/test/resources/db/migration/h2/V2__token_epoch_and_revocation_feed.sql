@@ -0,0 +1,17 @@
+alter table user add column if not exists token_epoch bigint default 0 not null;
+alter table user add column if not exists version bigint default 0 not null;
+
+create table if not exists revocation_log (
+    seq bigint auto_increment primary key,
+    kind varchar(32),
+    subject varchar(255),
+    expiration_time timestamp(6),
+    epoch bigint,
+    created_at timestamp(6)
+);
+
+create table if not exists permission_dictionary (
+    version varchar(255) not null primary key,
+    names clob,
+    created_at timestamp(6)
+);
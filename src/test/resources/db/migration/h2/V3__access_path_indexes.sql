@@ -0,0 +1,2 @@
+create index if not exists idx_invalid_token_expiration_time on invalid_token (expiration_time);
+create index if not exists idx_revocation_log_created_at on revocation_log (created_at);
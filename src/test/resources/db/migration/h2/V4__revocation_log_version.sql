@@ -0,0 +1 @@
+alter table revocation_log add column if not exists version bigint;
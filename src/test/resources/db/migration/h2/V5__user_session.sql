@@ -0,0 +1,11 @@
+create table if not exists user_session (
+    jti varchar(255) not null,
+    username varchar(255) not null,
+    device varchar(255),
+    issued_at timestamp(6) not null,
+    expires_at timestamp(6) not null,
+    primary key (jti)
+);
+
+create index if not exists idx_user_session_username_expires_at on user_session (username, expires_at);
+create index if not exists idx_user_session_expires_at on user_session (expires_at);